@@ -0,0 +1,50 @@
+package io.github.since1986.assa.benchmark;
+
+import io.github.since1986.assa.Dialogue;
+import io.github.since1986.assa.DialogueEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single line, in ns/line.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DialogueBenchmark {
+
+    private Dialogue[] dialogues;
+
+    private DialogueEncoder encoder;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        dialogues = Workloads.dialogues(1024);
+        encoder = new DialogueEncoder();
+    }
+
+    @Benchmark
+    public String dialogueToString() {
+        return dialogues[next++ & 1023].toString();
+    }
+
+    @Benchmark
+    public int dialogueEncoder() {
+        return encoder.encode(dialogues[next++ & 1023]).length();
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.since1986.assa.benchmark;
+
+import io.github.since1986.assa.AdvancedSubStationAlpha;
+import io.github.since1986.assa.AssWriter;
+import io.github.since1986.assa.ScriptInfo;
+import io.github.since1986.assa.Style;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The header sections on their own, and a whole document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentBenchmark {
+
+    @Param({"2000"})
+    public int lines;
+
+    private ScriptInfo scriptInfo;
+
+    private Style style;
+
+    private AdvancedSubStationAlpha document;
+
+    @Setup
+    public void setup() {
+        scriptInfo = Workloads.scriptInfo();
+        style = Workloads.style();
+        document = Workloads.document(lines);
+    }
+
+    /**
+     * Builds a fresh instance each time, since a rendered Script Info is cached on its instance; the builder call is part of the score.
+     */
+    @Benchmark
+    public String scriptInfoToString() {
+        return Workloads.scriptInfo().toString();
+    }
+
+    /**
+     * A cache hit on an instance that has already been rendered.
+     */
+    @Benchmark
+    public String scriptInfoToStringCached() {
+        return scriptInfo.toString();
+    }
+
+    /**
+     * Builds a fresh instance each time, as {@link #scriptInfoToString()} does.
+     */
+    @Benchmark
+    public String styleToString() {
+        return Workloads.style().toString();
+    }
+
+    @Benchmark
+    public String documentToString() {
+        return document.toString();
+    }
+
+    @Benchmark
+    public Writer documentWriter() throws IOException {
+        var writer = Writer.nullWriter();
+        new AssWriter(writer).write(document);
+        return writer;
+    }
+}
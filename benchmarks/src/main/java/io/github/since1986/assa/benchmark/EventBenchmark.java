@@ -0,0 +1,81 @@
+package io.github.since1986.assa.benchmark;
+
+import io.github.since1986.assa.AssWriter;
+import io.github.since1986.assa.DialogueTable;
+import io.github.since1986.assa.Event;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering a whole {@code [Events]} section. Divide the score by {@code lines} for ns/line, and {@code gc.alloc.rate.norm} by {@code lines} for bytes/line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class EventBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int lines;
+
+    private Event event;
+
+    private DialogueTable table;
+
+    @Setup
+    public void setup() {
+        event = Workloads.event(lines);
+        table = DialogueTable.of(event);
+    }
+
+    @Benchmark
+    public String eventToString() {
+        return event.toString();
+    }
+
+    @Benchmark
+    public Writer eventWriter() throws IOException {
+        var writer = Writer.nullWriter();
+        new AssWriter(writer).writeEvent(event);
+        return writer;
+    }
+
+    @Benchmark
+    public Writer eventWriterParallel() throws IOException {
+        var writer = Writer.nullWriter();
+        new AssWriter(writer).writeEvent(event, ForkJoinPool.commonPool());
+        return writer;
+    }
+
+    @Benchmark
+    public void eventUtf8Channel() throws IOException {
+        try (var writer = AssWriter.of(Channels.newChannel(OutputStream.nullOutputStream()))) {
+            writer.writeEvent(event);
+        }
+    }
+
+    @Benchmark
+    public Writer dialogueTableWriter() throws IOException {
+        var writer = Writer.nullWriter();
+        new AssWriter(writer).writeEvent(table);
+        return writer;
+    }
+}
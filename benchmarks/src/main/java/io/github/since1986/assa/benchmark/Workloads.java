@@ -0,0 +1,88 @@
+package io.github.since1986.assa.benchmark;
+
+import io.github.since1986.assa.AdvancedSubStationAlpha;
+import io.github.since1986.assa.Dialogue;
+import io.github.since1986.assa.Event;
+import io.github.since1986.assa.ScriptInfo;
+import io.github.since1986.assa.Style;
+import io.github.since1986.assa.Timestamps;
+
+import java.util.Random;
+
+/**
+ * Deterministic synthetic tracks: a mix of plain CJK lines, multi-line payloads like the README example and override-tag-heavy sign lines.
+ */
+final class Workloads {
+
+    private static final String[] CJK = {"测试条目", "字幕", "第一行文字", "又一行", "日本語のテキスト", "한국어 자막", "翻訳", "注释"};
+
+    private static final int MAX_DURATION = 500;
+
+    private Workloads() {
+    }
+
+    /**
+     * Lines start in order, each 1 to 5 seconds long and overlapping the next, as in a real track. Start steps are capped so that even the
+     * largest track fits in the 24 hours a {@link Dialogue} can hold, so times never wrap and every line ends after it starts.
+     */
+    static Dialogue[] dialogues(int count) {
+        var random = new Random(1986);
+        var dialogues = new Dialogue[count];
+        int maxStep = (Timestamps.MAX_CENTIS - MAX_DURATION) / Math.max(count, 1);
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int duration = 100 + random.nextInt(MAX_DURATION - 100);
+            dialogues[i] = Dialogue.builder()
+                    .layer(random.nextInt(3))
+                    .start(Timestamps.ofCentis(start))
+                    .end(Timestamps.ofCentis(start + duration))
+                    .style(i % 7 == 0 ? "Sign" : "Default")
+                    .name(i % 5 == 0 ? "Narrator" : "")
+                    .tex(text(random, i))
+                    .build();
+            start += Math.min(duration / 2, maxStep);
+        }
+        return dialogues;
+    }
+
+    static Event event(int count) {
+        return new Event(dialogues(count));
+    }
+
+    static ScriptInfo scriptInfo() {
+        return ScriptInfo.builder()
+                .title("benchmark")
+                .originalScript("since1986")
+                .playResX(1920)
+                .playResY(1080)
+                .collisions(ScriptInfo.Collisions.Normal)
+                .timer(100f)
+                .build();
+    }
+
+    static Style style() {
+        return Style.builder()
+                .fontname("Noto Sans CJK SC")
+                .fontsize(48)
+                .primaryColour("&H00FFFFFF")
+                .alignment(Style.Alignment.MID_BOTTOM)
+                .build();
+    }
+
+    static AdvancedSubStationAlpha document(int count) {
+        return new AdvancedSubStationAlpha(scriptInfo(), style(), event(count));
+    }
+
+    private static String text(Random random, int i) {
+        return switch (i % 3) {
+            case 0 -> "%s-%d\\N%s: %s\\N%s".formatted(cjk(random), i, cjk(random), random.nextDouble(999.999), cjk(random));
+            case 1 -> "{\\pos(%d,%d)\\c&H%06X&\\fad(%d,%d)\\bord2\\shad1}%s{\\i1}%s{\\i0}".formatted(
+                    random.nextInt(1920), random.nextInt(1080), random.nextInt(0xFFFFFF), random.nextInt(300), random.nextInt(300), cjk(random), cjk(random));
+            default -> cjk(random) + "，" + cjk(random) + "。";
+        };
+    }
+
+    private static String cjk(Random random) {
+        return CJK[random.nextInt(CJK.length)];
+    }
+}
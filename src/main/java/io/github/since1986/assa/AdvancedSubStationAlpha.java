@@ -1,15 +1,12 @@
 package io.github.since1986.assa;
 
-import java.util.Optional;
-
-public record AdvancedSubStationAlpha(ScriptInfo scriptInfo, Style style, Event event) {
+/**
+ * @param attachments fonts and graphics to embed, written between the styles and the events
+ */
+public record AdvancedSubStationAlpha(ScriptInfo scriptInfo, StyleSection style, EventSection event, Attachment... attachments) {
 
     @Override
     public String toString() {
-        return """
-                %s
-                %s
-                %s
-                """.formatted(scriptInfo, style, Optional.ofNullable(event).map(Event::toString).orElse(""));
+        return AssWriter.render(writer -> writer.write(this));
     }
 }
@@ -0,0 +1,271 @@
+package io.github.since1986.assa;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Applies edits to the dialogues of an existing file in place, so that fixing a few lines of a large track costs I/O proportional to the fix.
+ * Lines are addressed by their position among the {@code Dialogue:} lines when the file was opened, see {@link DialogueIndex}.
+ * <ul>
+ * <li>A replacement with the same UTF-8 length overwrites the line.</li>
+ * <li>Any other replacement blanks the old line and appends the new line.</li>
+ * <li>A deletion blanks the line.</li>
+ * <li>An insertion appends a line.</li>
+ * </ul>
+ * A blanked line is overwritten in place with a {@code ;} script comment padded with spaces to the same length. Once blanked lines take up more
+ * than half the file, {@link #compact()} runs by itself, so the file stays within twice its live size and the rewrites cost amortized I/O
+ * proportional to the edits; it can also be called directly, eg. before handing the file on. Compaction keeps line indexes, and also removes lines
+ * blanked by an earlier patcher on the same file.
+ * Lines are appended at the end of {@code [Events]}, so that section must be the last one, as {@link AssWriter} writes it. Appended lines change the
+ * order of lines in the file but not their times; renderers order lines by time. Dialogues containing a raw {@code '\r'} or {@code '\n'} are
+ * rejected, as they would split the line; use {@code \N} for a line break in the text. Not thread-safe.
+ */
+public final class AssPatcher implements Closeable {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+
+    private final DialogueIndex index;
+
+    private final DialogueEncoder encoder = new DialogueEncoder();
+
+    /**
+     * Whatever follows the last line of {@code [Events]}, usually an empty line, rewritten after each appended line.
+     */
+    private final byte[] tail;
+
+    /**
+     * Blanked lines by offset, with their length including the line break.
+     */
+    private final TreeMap<Long, Integer> blanks = new TreeMap<>();
+
+    private long blankBytes;
+
+    public AssPatcher(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.index = DialogueIndex.scan(channel);
+        long eventsEnd = index.eventsEnd();
+        if (index.eventsLast() && eventsEnd >= 0) {
+            this.tail = new byte[(int) (channel.size() - eventsEnd)];
+            read(ByteBuffer.wrap(tail), eventsEnd);
+        } else {
+            this.tail = null;
+        }
+        for (int i = 0; i < index.blankCount(); i++) {
+            blanks.put(index.blankOffset(i), index.blankLength(i));
+            blankBytes += index.blankLength(i);
+        }
+    }
+
+    public static AssPatcher open(Path path) throws IOException {
+        return new AssPatcher(FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    public DialogueIndex index() {
+        return index;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public void replace(int line, Dialogue dialogue) throws IOException {
+        var bytes = encode(dialogue);
+        if (bytes.length == index.length(line)) {
+            write(ByteBuffer.wrap(bytes), index.offset(line));
+            return;
+        }
+        checkAppendable();
+        if (index.offset(line) >= 0) {
+            blank(line);
+        }
+        long offset = append(bytes);
+        index.set(line, offset, bytes.length);
+        compactIfSparse();
+    }
+
+    /**
+     * Blanks the line; its index stays taken, with {@link DialogueIndex#offset} {@code -1}, until it is replaced. Deleting it again does nothing.
+     */
+    public void delete(int line) throws IOException {
+        if (index.offset(line) < 0) {
+            return;
+        }
+        blank(line);
+        index.set(line, -1, 0);
+        compactIfSparse();
+    }
+
+    /**
+     * Appends {@code dialogue} and returns its index.
+     */
+    public int insert(Dialogue dialogue) throws IOException {
+        checkAppendable();
+        var bytes = encode(dialogue);
+        return index.add(append(bytes), bytes.length);
+    }
+
+    /**
+     * Removes the blanked lines by moving the bytes after each one down and truncating the file. Costs one pass over the file from the first
+     * blanked line on; the index is updated, line indexes stay the same.
+     */
+    public void compact() throws IOException {
+        if (blanks.isEmpty()) {
+            return;
+        }
+        var starts = new long[blanks.size()];
+        var removed = new long[blanks.size()];
+        long target = blanks.firstKey();
+        long from = target;
+        long total = 0;
+        int i = 0;
+        for (Map.Entry<Long, Integer> blank : blanks.entrySet()) {
+            target = move(from, blank.getKey(), target);
+            from = blank.getKey() + blank.getValue();
+            starts[i] = blank.getKey();
+            total += blank.getValue();
+            removed[i++] = total;
+        }
+        target = move(from, channel.size(), target);
+        channel.truncate(target);
+        for (int line = 0; line < index.size(); line++) {
+            long offset = index.offset(line);
+            if (offset < 0) {
+                continue;
+            }
+            index.set(line, offset - removedBefore(starts, removed, offset), index.length(line));
+        }
+        index.eventsEnd(index.eventsEnd() - removedBefore(starts, removed, index.eventsEnd()));
+        blanks.clear();
+        blankBytes = 0;
+    }
+
+    /**
+     * Writes the changes through to the storage device.
+     */
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private byte[] encode(Dialogue dialogue) {
+        var line = encoder.encode(dialogue).toString();
+        if (line.indexOf('\n') >= 0 || line.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Dialogue contains a raw line break, use \\N instead: " + line);
+        }
+        return line.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void blank(int line) throws IOException {
+        long offset = index.offset(line);
+        int length = index.length(line);
+        var bytes = new byte[length];
+        Arrays.fill(bytes, (byte) ' ');
+        bytes[0] = ';';
+        write(ByteBuffer.wrap(bytes), offset);
+        // a last line without a line break has nothing after it to remove
+        int removed = (int) Math.min(length + (index.crlf() ? 2 : 1), channel.size() - offset);
+        blanks.put(offset, removed);
+        blankBytes += removed;
+    }
+
+    private void compactIfSparse() throws IOException {
+        if (blankBytes > channel.size() / 2) {
+            compact();
+        }
+    }
+
+    /**
+     * Copies the bytes {@code [from, to)} down to {@code target} and returns the offset just after the copy.
+     */
+    private long move(long from, long to, long target) throws IOException {
+        if (from == target) {
+            return to;
+        }
+        var buffer = ByteBuffer.allocate((int) Math.min(COPY_BUFFER_SIZE, Math.max(to - from, 0)));
+        while (from < to) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), to - from));
+            read(buffer, from);
+            buffer.flip();
+            write(buffer, target);
+            from += buffer.limit();
+            target += buffer.limit();
+        }
+        return target;
+    }
+
+    /**
+     * The bytes removed before {@code offset}, given blank starts in order and the running total of their lengths.
+     */
+    private static long removedBefore(long[] starts, long[] removed, long offset) {
+        int i = Arrays.binarySearch(starts, offset);
+        int before = i >= 0 ? i : -i - 1;
+        return before == 0 ? 0 : removed[before - 1];
+    }
+
+    /**
+     * Writes {@code bytes} as a line at the end of {@code [Events]} followed by the tail, and returns the offset of the line.
+     */
+    private long append(byte[] bytes) throws IOException {
+        long eventsEnd = index.eventsEnd();
+        var lineBreak = index.crlf() ? new byte[]{'\r', '\n'} : new byte[]{'\n'};
+        boolean needsBreak = eventsEnd > 0 && !endsWithLineBreak(eventsEnd);
+        var buffer = ByteBuffer.allocate((needsBreak ? lineBreak.length : 0) + bytes.length + lineBreak.length + tail.length);
+        if (needsBreak) {
+            buffer.put(lineBreak);
+            // the break now ends a blanked last line, so goes with it
+            var last = blanks.lastEntry();
+            if (last != null && last.getKey() + last.getValue() == eventsEnd) {
+                blanks.put(last.getKey(), last.getValue() + lineBreak.length);
+                blankBytes += lineBreak.length;
+            }
+        }
+        long offset = eventsEnd + buffer.position();
+        buffer.put(bytes).put(lineBreak);
+        long end = eventsEnd + buffer.position();
+        buffer.put(tail).flip();
+        write(buffer, eventsEnd);
+        index.eventsEnd(end);
+        return offset;
+    }
+
+    private boolean endsWithLineBreak(long position) throws IOException {
+        var last = ByteBuffer.allocate(1);
+        read(last, position - 1);
+        return last.get(0) == '\n';
+    }
+
+    private void checkAppendable() {
+        if (tail == null) {
+            throw new IllegalStateException("Lines can only be appended when [Events] is the last section");
+        }
+    }
+
+    private void read(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file at " + (position + buffer.position()));
+            }
+        }
+    }
+
+    private void write(ByteBuffer buffer, long position) throws IOException {
+        long start = position - buffer.position();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, start + buffer.position());
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package io.github.since1986.assa;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Pull parser for ASSA files. The header sections ({@code [Script Info]}, {@code [V4+ Styles]}) are read up front, events are then
+ * read one line at a time on demand, so memory stays constant however long the file is.
+ * Each section's {@code Format:} line decides which column holds which field.
+ */
+public final class AssReader implements Closeable {
+
+    private static final String[] DEFAULT_EVENT_FORMAT = {"layer", "start", "end", "style", "name", "marginl", "marginr", "marginv", "effect", "text"};
+
+    private final BufferedReader reader;
+
+    /**
+     * Script Info values by normalized key, applied when {@link #scriptInfo()} is built.
+     */
+    private final Map<String, String> scriptInfoValues = new LinkedHashMap<>();
+
+    private final List<Style> styles = new ArrayList<>();
+
+    private Section section = Section.NONE;
+
+    private String[] styleFormat;
+
+    private String[] eventFormat = DEFAULT_EVENT_FORMAT;
+
+    private boolean headerRead;
+
+    private boolean firstLine = true;
+
+    /**
+     * An event line read while looking for the {@code Format:} line of {@code [Events]}, handed out by the next {@link #nextDialogue()}.
+     */
+    private String pendingLine;
+
+    private ScriptInfo scriptInfo;
+
+    public AssReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader bufferedReader ? bufferedReader : new BufferedReader(reader);
+    }
+
+    public static AssReader open(Path path) throws IOException {
+        return new AssReader(Files.newBufferedReader(path, StandardCharsets.UTF_8));
+    }
+
+    public ScriptInfo scriptInfo() throws IOException {
+        readHeader();
+        if (scriptInfo == null) {
+            scriptInfo = buildScriptInfo();
+        }
+        return scriptInfo;
+    }
+
+    /**
+     * The styles read so far, in file order. Styles placed after the events are only seen once the events have been read.
+     */
+    public List<Style> styles() throws IOException {
+        readHeader();
+        return Collections.unmodifiableList(styles);
+    }
+
+    /**
+     * Reads the next {@code Dialogue:} line, or returns {@code null} at the end of the input. {@code Comment:} lines are skipped.
+     */
+    public Dialogue nextDialogue() throws IOException {
+        readHeader();
+        String line;
+        while ((line = nextLine()) != null) {
+            if (accept(line) && section == Section.EVENTS && line.startsWith("Dialogue:")) {
+                return parseDialogue(line.substring("Dialogue:".length()));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The remaining dialogues as a lazy, sequential stream. I/O errors are rethrown as {@link UncheckedIOException}.
+     */
+    public Stream<Dialogue> dialogues() {
+        var iterator = new Iterator<Dialogue>() {
+            private Dialogue next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = nextDialogue();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Dialogue next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                var result = next;
+                next = null;
+                return result;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Reads until the {@code Format:} line of {@code [Events]}, the first event line if {@code [Events]} has no {@code Format:} line, or the end
+     * of the input. Without a {@code Format:} line the default event format is used and that first event line is kept for {@link #nextDialogue()}.
+     */
+    private void readHeader() throws IOException {
+        if (headerRead) {
+            return;
+        }
+        headerRead = true;
+        String line;
+        while ((line = readLine()) != null) {
+            if (accept(line)) {
+                pendingLine = line;
+                return;
+            }
+            if (section == Section.EVENTS && line.startsWith("Format:")) {
+                return;
+            }
+        }
+    }
+
+    private String nextLine() throws IOException {
+        if (pendingLine != null) {
+            var line = pendingLine;
+            pendingLine = null;
+            return line;
+        }
+        return readLine();
+    }
+
+    private String readLine() throws IOException {
+        var line = reader.readLine();
+        if (line != null && firstLine) {
+            firstLine = false;
+            if (!line.isEmpty() && line.charAt(0) == '\uFEFF') {
+                line = line.substring(1);
+            }
+        }
+        return line;
+    }
+
+    /**
+     * Applies a header line and returns {@code true} if the line is an event line still to be handled by the caller.
+     */
+    private boolean accept(String line) {
+        if (line.isEmpty() || line.startsWith(";") || line.startsWith("!:")) {
+            return false;
+        }
+        if (line.startsWith("[")) {
+            section = Section.of(line.trim());
+            return false;
+        }
+        switch (section) {
+            case SCRIPT_INFO -> acceptScriptInfo(line);
+            case STYLES -> acceptStyle(line);
+            case EVENTS -> {
+                if (line.startsWith("Format:")) {
+                    eventFormat = parseFormat(line);
+                    return false;
+                }
+                return true;
+            }
+            default -> {
+            }
+        }
+        return false;
+    }
+
+    private void acceptScriptInfo(String line) {
+        int colon = line.indexOf(':');
+        if (colon >= 0) {
+            scriptInfoValues.put(normalize(line.substring(0, colon)), line.substring(colon + 1).trim());
+            scriptInfo = null;
+        }
+    }
+
+    private ScriptInfo buildScriptInfo() {
+        var builder = ScriptInfo.builder();
+        scriptInfoValues.forEach((key, value) -> {
+            switch (key) {
+                case "title" -> builder.title(value);
+                case "originalscript" -> builder.originalScript(value);
+                case "originaltranslation" -> builder.originalTranslation(value);
+                case "originalediting" -> builder.originalEditing(value);
+                case "originaltiming" -> builder.originalTiming(value);
+                case "synchpoint" -> builder.synchPoint(value);
+                case "scriptupdatedby" -> builder.scriptUpdatedBy(value);
+                case "updatedetails" -> builder.updateDetails(value);
+                case "scripttype" -> builder.scriptType(value);
+                case "collisions" -> builder.collisions(parseCollisions(value));
+                case "playresx" -> builder.playResX(Integer.valueOf(value));
+                case "playresy" -> builder.playResY(Integer.valueOf(value));
+                case "playdepth" -> builder.playDepth(value);
+                case "timer" -> builder.timer(Float.valueOf(value));
+                case "wrapstyle" -> builder.wrapStyle(IntValueBased.valueOf(ScriptInfo.WrapStyle.class, Integer.parseInt(value)));
+                default -> {
+                }
+            }
+        });
+        return builder.build();
+    }
+
+    private void acceptStyle(String line) {
+        if (line.startsWith("Format:")) {
+            styleFormat = parseFormat(line);
+            return;
+        }
+        if (!line.startsWith("Style:") || styleFormat == null) {
+            return;
+        }
+        var values = split(line.substring("Style:".length()), styleFormat.length);
+        var builder = Style.builder();
+        for (int i = 0; i < values.length; i++) {
+            var value = values[i].trim();
+            switch (styleFormat[i]) {
+                case "name" -> builder.name(value);
+                case "fontname" -> builder.fontname(value);
+                case "fontsize" -> builder.fontsize(parseNumber(styleFormat[i], value));
+                case "primarycolour" -> builder.primaryColour(value);
+                case "secondarycolour" -> builder.secondaryColour(value);
+                case "outlinecolour", "tertiarycolour" -> builder.outlineColour(value);
+                case "backcolour" -> builder.backColour(value);
+                case "bold" -> builder.bold(parseBoolean(value));
+                case "italic" -> builder.italic(parseBoolean(value));
+                case "underline" -> builder.underline(parseBoolean(value));
+                case "strikeout" -> builder.strikeOut(parseBoolean(value));
+                case "scalex" -> builder.scaleX(parseNumber(styleFormat[i], value));
+                case "scaley" -> builder.scaleY(parseNumber(styleFormat[i], value));
+                case "spacing" -> builder.spacing(parseNumber(styleFormat[i], value));
+                case "angle" -> builder.angle(Float.valueOf(value));
+                case "borderstyle" -> builder.borderStyle(IntValueBased.valueOf(Style.BorderStyle.class, Integer.parseInt(value)));
+                case "outline" -> builder.outline(parseNumber(styleFormat[i], value));
+                case "shadow" -> builder.shadow(parseNumber(styleFormat[i], value));
+                case "alignment" -> builder.alignment(IntValueBased.valueOf(Style.Alignment.class, Integer.parseInt(value)));
+                case "marginl" -> builder.marginL(Integer.valueOf(value));
+                case "marginr" -> builder.marginR(Integer.valueOf(value));
+                case "marginv" -> builder.marginV(Integer.valueOf(value));
+                case "encoding" -> builder.encoding(Integer.valueOf(value));
+                default -> {
+                }
+            }
+        }
+        styles.add(builder.build());
+    }
+
+    private Dialogue parseDialogue(String line) {
+        var values = split(line, eventFormat.length);
+        var builder = Dialogue.builder();
+        for (int i = 0; i < values.length; i++) {
+            var format = eventFormat[i];
+            var value = format.equals("text") ? values[i] : values[i].trim();
+            switch (format) {
+                case "marked" -> builder.marked(value.endsWith("1"));
+                case "layer" -> builder.layer(Integer.parseInt(value));
+                case "start" -> builder.start(value.isEmpty() ? null : Timestamps.ofCentis(Timestamps.parse(value)));
+                case "end" -> builder.end(value.isEmpty() ? null : Timestamps.ofCentis(Timestamps.parse(value)));
+                case "style" -> builder.style(value);
+                case "name" -> builder.name(value);
+                case "marginl" -> builder.marginL(Integer.parseInt(value));
+                case "marginr" -> builder.marginR(Integer.parseInt(value));
+                case "marginv" -> builder.marginV(Integer.parseInt(value));
+                case "effect" -> builder.effect(Dialogue.Effect.parse(value));
+                case "text" -> builder.tex(value);
+                default -> {
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static String[] parseFormat(String line) {
+        var names = line.substring("Format:".length()).split(",");
+        for (int i = 0; i < names.length; i++) {
+            names[i] = normalize(names[i]);
+        }
+        return names;
+    }
+
+    /**
+     * Splits into at most {@code count} fields; the last field keeps any further commas, as the Text field of an event does.
+     */
+    private static String[] split(String line, int count) {
+        var values = new String[count];
+        int from = line.startsWith(" ") ? 1 : 0;
+        int i = 0;
+        for (; i < count - 1; i++) {
+            int comma = line.indexOf(',', from);
+            if (comma < 0) {
+                break;
+            }
+            values[i] = line.substring(from, comma);
+            from = comma + 1;
+        }
+        values[i] = line.substring(from);
+        for (i++; i < count; i++) {
+            values[i] = "";
+        }
+        return values;
+    }
+
+    private static String normalize(String name) {
+        return name.replace(" ", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Style numbers are often written with a zero fraction, eg. {@code ScaleX: 100.00}. {@link Style} holds these fields as integers, so a value
+     * with a real fraction, eg. {@code Outline: 1.5}, is rejected rather than silently truncated.
+     */
+    private static int parseNumber(String field, String value) {
+        var number = Double.parseDouble(value);
+        if (number != Math.rint(number) || Math.abs(number) > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Style field " + field + " must be a whole number: " + value);
+        }
+        return (int) number;
+    }
+
+    private static ScriptInfo.Collisions parseCollisions(String value) {
+        for (var collisions : ScriptInfo.Collisions.values()) {
+            if (collisions.name().equalsIgnoreCase(value)) {
+                return collisions;
+            }
+        }
+        return ScriptInfo.Collisions.UnDefined;
+    }
+
+    private static boolean parseBoolean(String value) {
+        return !value.equals("0");
+    }
+
+    private enum Section {
+        NONE, SCRIPT_INFO, STYLES, EVENTS, OTHER;
+
+        static Section of(String header) {
+            return switch (header.toLowerCase(Locale.ROOT)) {
+                case "[script info]" -> SCRIPT_INFO;
+                case "[v4+ styles]", "[v4 styles]", "[v4 styles+]" -> STYLES;
+                case "[events]" -> EVENTS;
+                default -> OTHER;
+            };
+        }
+    }
+}
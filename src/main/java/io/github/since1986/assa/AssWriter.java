@@ -0,0 +1,300 @@
+package io.github.since1986.assa;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+
+/**
+ * Streams an ASSA document section by section, and each {@link Dialogue} line by line, into an {@link Appendable}.
+ * Only one line is held in memory at a time, so the size of the target does not depend on the size of the document.
+ * The output is exactly the same as {@link AdvancedSubStationAlpha#toString()}.
+ * While {@link RenderMetrics} or the {@link RenderEvents JFR events} are enabled, documents and sections are timed and their output counted;
+ * otherwise nothing is measured.
+ */
+public final class AssWriter implements Closeable, Flushable {
+
+    static final String EVENTS_HEADER = """
+            [Events]
+            Format: Layer, Start, End, Style, Name, MarginL, MarginR, MarginV, Effect, Text
+            """;
+
+    private final Appendable out;
+
+    private final DialogueEncoder encoder = new DialogueEncoder();
+
+    /**
+     * Counts the output if instrumentation was enabled when this writer was created, otherwise {@code null}.
+     */
+    private final CountingWriter counter;
+
+    private final RenderMetrics metrics;
+
+    /**
+     * Whether to emit {@link RenderEvents}, decided when this writer is created.
+     */
+    private final boolean events;
+
+    /**
+     * Dialogues written so far, only counted along with {@link #counter}.
+     */
+    private long dialogues;
+
+    public AssWriter(Appendable out) {
+        var metrics = RenderMetrics.global();
+        this.metrics = metrics.isEnabled() ? metrics : null;
+        this.events = RenderEvents.enabled();
+        this.counter = this.metrics != null || events ? new CountingWriter(out) : null;
+        this.out = counter == null ? out : counter;
+    }
+
+    public static AssWriter of(Writer writer) {
+        return new AssWriter(writer instanceof BufferedWriter ? writer : new BufferedWriter(writer));
+    }
+
+    public static AssWriter of(OutputStream outputStream) {
+        return of(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Encodes straight into UTF-8 bytes on {@code channel}, see {@link Utf8ChannelWriter}; closing the writer closes the channel.
+     */
+    public static AssWriter of(WritableByteChannel channel) {
+        return new AssWriter(new Utf8ChannelWriter(channel));
+    }
+
+    /**
+     * Opens {@code path} for writing, by default creating or truncating it, and writes through a {@link Utf8ChannelWriter}.
+     */
+    public static AssWriter of(Path path, OpenOption... options) throws IOException {
+        return new AssWriter(Utf8ChannelWriter.open(path, options));
+    }
+
+    public void write(AdvancedSubStationAlpha advancedSubStationAlpha) throws IOException {
+        write(advancedSubStationAlpha, (AssWriter writer, EventSection event) -> writer.writeEvent(event));
+    }
+
+    /**
+     * Same output as {@link #write(AdvancedSubStationAlpha)}, with the events formatted in parallel on {@code executor}.
+     */
+    public void write(AdvancedSubStationAlpha advancedSubStationAlpha, Executor executor) throws IOException {
+        write(advancedSubStationAlpha, (AssWriter writer, EventSection event) -> writer.writeEvent(event, executor));
+    }
+
+    private void write(AdvancedSubStationAlpha advancedSubStationAlpha, EventWriting eventWriting) throws IOException {
+        if (counter == null) {
+            writeDocument(advancedSubStationAlpha, eventWriting);
+            return;
+        }
+        var event = events ? new RenderEvents.Document() : null;
+        if (event != null) {
+            event.begin();
+        }
+        long bytes = counter.bytes();
+        long dialogues = this.dialogues;
+        writeDocument(advancedSubStationAlpha, eventWriting);
+        if (metrics != null) {
+            metrics.recordDocument();
+        }
+        if (event != null && event.shouldCommit()) {
+            event.dialogues = this.dialogues - dialogues;
+            event.bytes = counter.bytes() - bytes;
+            event.commit();
+        }
+    }
+
+    private void writeDocument(AdvancedSubStationAlpha advancedSubStationAlpha, EventWriting eventWriting) throws IOException {
+        writeScriptInfo(advancedSubStationAlpha.scriptInfo());
+        out.append('\n');
+        writeStyle(advancedSubStationAlpha.style());
+        out.append('\n');
+        if (advancedSubStationAlpha.attachments() != null) {
+            writeAttachments(Attachment.Kind.FONT, advancedSubStationAlpha.attachments());
+            writeAttachments(Attachment.Kind.GRAPHIC, advancedSubStationAlpha.attachments());
+        }
+        if (advancedSubStationAlpha.event() != null) {
+            eventWriting.write(this, advancedSubStationAlpha.event());
+        }
+        out.append('\n');
+    }
+
+    public void writeScriptInfo(ScriptInfo scriptInfo) throws IOException {
+        section("[Script Info]", false, () -> {
+            out.append(String.valueOf(scriptInfo));
+            return 0;
+        });
+    }
+
+    public void writeStyle(StyleSection style) throws IOException {
+        section("[V4+ Styles]", false, () -> {
+            out.append(String.valueOf(style));
+            return style == null ? 0 : style.styles().size();
+        });
+    }
+
+    /**
+     * Writes the {@code [Fonts]} or {@code [Graphics]} section holding the attachments of that kind, followed by an empty line; nothing if there are none.
+     */
+    public void writeAttachments(Attachment.Kind kind, Attachment... attachments) throws IOException {
+        section(kind.header(), false, () -> writeAttachmentSection(kind, attachments));
+    }
+
+    private long writeAttachmentSection(Attachment.Kind kind, Attachment... attachments) throws IOException {
+        long count = 0;
+        for (var attachment : attachments) {
+            if (attachment.kind() != kind) {
+                continue;
+            }
+            if (count++ == 0) {
+                out.append(kind.header()).append('\n');
+            }
+            out.append(kind.key()).append(": ").append(attachment.name()).append('\n');
+            attachment.content().encodeTo(out);
+        }
+        if (count > 0) {
+            out.append('\n');
+        }
+        return count;
+    }
+
+    public void writeEvent(EventSection event) throws IOException {
+        section("[Events]", true, () -> {
+            long count = encoder.count();
+            out.append(EVENTS_HEADER);
+            event.writeLines(this);
+            out.append('\n');
+            return encoder.count() - count;
+        });
+    }
+
+    /**
+     * Same output as {@link #writeEvent(EventSection)}, with the lines formatted in chunks of {@code chunkSize} on {@code executor}.
+     */
+    public void writeEvent(EventSection event, Executor executor, int chunkSize) throws IOException {
+        section("[Events]", true, () -> {
+            out.append(EVENTS_HEADER);
+            long count = new ParallelEventRenderer(executor, chunkSize).writeLines(event, out);
+            out.append('\n');
+            return count;
+        });
+    }
+
+    public void writeEvent(EventSection event, Executor executor) throws IOException {
+        writeEvent(event, executor, ParallelEventRenderer.DEFAULT_CHUNK_SIZE);
+    }
+
+    public void writeDialogue(Dialogue dialogue) throws IOException {
+        if (dialogue == null) {
+            out.append("null");
+        } else {
+            encoder.encode(dialogue).writeTo(out);
+        }
+    }
+
+    /**
+     * Runs {@code writing} and, if instrumented, records its time, lines and bytes.
+     *
+     * @param dialogues whether the lines are dialogues
+     */
+    private void section(String name, boolean dialogues, SectionWriting writing) throws IOException {
+        if (counter == null) {
+            writing.write();
+            return;
+        }
+        var event = events ? new RenderEvents.Section() : null;
+        if (event != null) {
+            event.begin();
+        }
+        long start = System.nanoTime();
+        long bytes = counter.bytes();
+        long lines = writing.write();
+        bytes = counter.bytes() - bytes;
+        if (dialogues) {
+            this.dialogues += lines;
+        }
+        if (metrics != null) {
+            metrics.recordSection(dialogues ? lines : 0, bytes, System.nanoTime() - start);
+        }
+        if (event != null && event.shouldCommit() && (lines > 0 || bytes > 0)) {
+            event.section = name;
+            event.lines = lines;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    Appendable out() {
+        return out;
+    }
+
+    DialogueEncoder encoder() {
+        return encoder;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (out instanceof Flushable flushable) {
+            flushable.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out instanceof Closeable closeable) {
+            closeable.close();
+        } else {
+            flush();
+        }
+    }
+
+    static void write(Appendable out, char[] chars, int offset, int length) throws IOException {
+        if (out instanceof Writer writer) {
+            writer.write(chars, offset, length);
+        } else if (out instanceof StringBuilder builder) {
+            builder.append(chars, offset, length);
+        } else {
+            out.append(CharBuffer.wrap(chars, offset, length));
+        }
+    }
+
+    /**
+     * Renders into a {@link StringBuilder}, which never throws {@link IOException}.
+     */
+    static String render(ThrowingConsumer<AssWriter> action) {
+        var builder = new StringBuilder();
+        try {
+            action.accept(new AssWriter(builder));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return builder.toString();
+    }
+
+    @FunctionalInterface
+    interface ThrowingConsumer<T> {
+        void accept(T t) throws IOException;
+    }
+
+    /**
+     * Writes a section and returns the number of lines it wrote.
+     */
+    @FunctionalInterface
+    private interface SectionWriting {
+        long write() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface EventWriting {
+        void write(AssWriter writer, EventSection event) throws IOException;
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.since1986.assa;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A font or a graphic embedded in the script, in the {@code [Fonts]} or {@code [Graphics]} section. The data is uuencoded while the document is
+ * written, straight from the file or buffer.
+ *
+ * @param name the file name, eg. {@code chaucer_B0.ttf} for a bold font with encoding 0
+ */
+public record Attachment(Kind kind, String name, Content content) {
+
+    public static Attachment font(String name, Path path) {
+        return new Attachment(Kind.FONT, name, file(path));
+    }
+
+    public static Attachment font(String name, ByteBuffer data) {
+        return new Attachment(Kind.FONT, name, buffer(data));
+    }
+
+    public static Attachment graphic(String name, Path path) {
+        return new Attachment(Kind.GRAPHIC, name, file(path));
+    }
+
+    public static Attachment graphic(String name, ByteBuffer data) {
+        return new Attachment(Kind.GRAPHIC, name, buffer(data));
+    }
+
+    private static Content file(Path path) {
+        return out -> {
+            try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                SsaUuencoder.encode(channel, out);
+            }
+        };
+    }
+
+    private static Content buffer(ByteBuffer data) {
+        var readOnly = data.asReadOnlyBuffer();
+        return out -> SsaUuencoder.encode(readOnly, out);
+    }
+
+    public enum Kind {
+        FONT("[Fonts]", "fontname"),
+
+        GRAPHIC("[Graphics]", "filename");
+
+        private final String header;
+
+        private final String key;
+
+        Kind(String header, String key) {
+            this.header = header;
+            this.key = key;
+        }
+
+        String header() {
+            return header;
+        }
+
+        String key() {
+            return key;
+        }
+    }
+
+    /**
+     * Writes the uuencoded data, ending with a line break.
+     */
+    @FunctionalInterface
+    public interface Content {
+        void encodeTo(Appendable out) throws IOException;
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.since1986.assa;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes many documents to files concurrently, eg. per-language and per-user variants of a track, with at most {@code maxConcurrency} files being
+ * written at a time. Each job gets its own completion future. Once {@code maxConcurrency} jobs are in flight, {@link #submit} blocks the submitting
+ * thread until one finishes, so no executor thread is ever parked waiting for a slot.
+ * By default jobs run on virtual threads when the runtime has them (Java 21+), as blocking file I/O is what they are for, and on a fixed pool of
+ * {@code maxConcurrency} platform threads otherwise.
+ * Documents built from the same {@link ScriptInfo} and {@link StyleSection} instances share their rendered headers, which are computed only once.
+ */
+public final class BatchRenderer implements AutoCloseable {
+
+    private final ExecutorService executor;
+
+    private final boolean ownsExecutor;
+
+    private final Semaphore permits;
+
+    public BatchRenderer(int maxConcurrency) {
+        this(defaultExecutor(checkConcurrency(maxConcurrency)), maxConcurrency, true);
+    }
+
+    /**
+     * Runs jobs on {@code executor}, which is not shut down by {@link #close()}.
+     */
+    public BatchRenderer(ExecutorService executor, int maxConcurrency) {
+        this(executor, maxConcurrency, false);
+    }
+
+    private BatchRenderer(ExecutorService executor, int maxConcurrency, boolean ownsExecutor) {
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.permits = new Semaphore(checkConcurrency(maxConcurrency));
+    }
+
+    /**
+     * Writes {@code document} to {@code target}, creating or truncating it. The future completes with {@code target}, or exceptionally with the
+     * {@link IOException} wrapped in an {@link UncheckedIOException}. Blocks while {@code maxConcurrency} jobs are in flight; if interrupted while
+     * waiting, the interrupt flag is restored and the returned future has already failed with the {@link InterruptedException}.
+     */
+    public CompletableFuture<Path> submit(AdvancedSubStationAlpha document, Path target) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try (var writer = AssWriter.of(target)) {
+                    writer.write(document);
+                    return target;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    permits.release();
+                }
+            }, executor);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public List<CompletableFuture<Path>> submitAll(List<Job> jobs) {
+        var futures = new ArrayList<CompletableFuture<Path>>(jobs.size());
+        for (var job : jobs) {
+            futures.add(submit(job.document(), job.target()));
+        }
+        return futures;
+    }
+
+    /**
+     * Waits for submitted jobs to finish, if the executor is the renderer's own.
+     *
+     * @throws InterruptedIOException if interrupted while waiting; the interrupt flag is restored
+     */
+    @Override
+    public void close() throws InterruptedIOException {
+        if (ownsExecutor) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                var exception = new InterruptedIOException("Interrupted while waiting for submitted jobs");
+                exception.initCause(e);
+                throw exception;
+            }
+        }
+    }
+
+    private static int checkConcurrency(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+        return maxConcurrency;
+    }
+
+    private static ExecutorService defaultExecutor(int maxConcurrency) {
+        try {
+            var factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(maxConcurrency);
+        }
+    }
+
+    public record Job(AdvancedSubStationAlpha document, Path target) {
+    }
+}
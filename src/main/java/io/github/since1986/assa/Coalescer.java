@@ -0,0 +1,97 @@
+package io.github.since1986.assa;
+
+import lombok.Builder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Objects;
+
+/**
+ * Merges runs of consecutive dialogues that show the same thing into one longer line, eg. the 2000 lines of 200 ms each that a generator writes
+ * for one caption. Two lines show the same thing when layer, style, name, margins, effect, text and marked all match, and the later one starts
+ * no earlier than the earlier one and no later than {@link #maxGap} centiseconds after it ends. Equal texts of the lines that remain are shared
+ * as one {@link String} instance.
+ */
+@Builder
+public final class Coalescer {
+
+    /**
+     * Largest gap between two lines that are still merged, in centiseconds; {@code 0} merges touching and overlapping lines only.
+     */
+    @Builder.Default
+    private int maxGap = 0;
+
+    public Result coalesce(EventSection event) {
+        if (maxGap < 0) {
+            throw new IllegalArgumentException("maxGap must not be negative: " + maxGap);
+        }
+        var texts = new HashMap<String, String>();
+        var merged = new ArrayList<Dialogue>();
+        var encoder = new DialogueEncoder();
+        long bytesBefore = 0;
+        int linesBefore = 0;
+        Dialogue last = null;
+        int lastStart = -1;
+        int lastEnd = -1;
+        for (var dialogue : event) {
+            linesBefore++;
+            bytesBefore += encodedLength(encoder, dialogue);
+            if (dialogue == null || dialogue.getStart() == null || dialogue.getEnd() == null) {
+                last = null;
+                merged.add(dialogue);
+                continue;
+            }
+            int start = Timestamps.toCentis(dialogue.getStart());
+            int end = Timestamps.toCentis(dialogue.getEnd());
+            if (last != null && start >= lastStart && start <= lastEnd + maxGap && sameContent(last, dialogue)) {
+                if (end > lastEnd) {
+                    lastEnd = end;
+                    last = last.toBuilder().end(dialogue.getEnd()).build();
+                    merged.set(merged.size() - 1, last);
+                }
+                continue;
+            }
+            var tex = dialogue.getTex() == null ? null : texts.computeIfAbsent(dialogue.getTex(), text -> text);
+            last = tex == dialogue.getTex() ? dialogue : dialogue.toBuilder().tex(tex).build();
+            lastStart = start;
+            lastEnd = end;
+            merged.add(last);
+        }
+        long bytesAfter = 0;
+        for (var dialogue : merged) {
+            bytesAfter += encodedLength(encoder, dialogue);
+        }
+        return new Result(new Event(merged.toArray(Dialogue[]::new)), linesBefore - merged.size(), bytesBefore - bytesAfter);
+    }
+
+    private static boolean sameContent(Dialogue a, Dialogue b) {
+        return a.isMarked() == b.isMarked()
+                && a.getLayer() == b.getLayer()
+                && a.getMarginL() == b.getMarginL()
+                && a.getMarginR() == b.getMarginR()
+                && a.getMarginV() == b.getMarginV()
+                && Objects.equals(a.getStyle(), b.getStyle())
+                && Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getEffect(), b.getEffect())
+                && Objects.equals(a.getTex(), b.getTex());
+    }
+
+    /**
+     * UTF-8 length of the written line, including its line break.
+     */
+    private static long encodedLength(DialogueEncoder encoder, Dialogue dialogue) {
+        if (dialogue == null) {
+            return "null".length() + 1;
+        }
+        encoder.encode(dialogue);
+        return CountingWriter.utf8Length(encoder.buffer(), 0, encoder.length()) + 1;
+    }
+
+    /**
+     * @param event      the coalesced lines, in their original order
+     * @param linesSaved the number of lines merged away
+     * @param bytesSaved the number of UTF-8 bytes that saves in the written file
+     */
+    public record Result(Event event, int linesSaved, long bytesSaved) {
+    }
+}
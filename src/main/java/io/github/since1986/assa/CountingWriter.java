@@ -0,0 +1,98 @@
+package io.github.since1986.assa;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Passes everything through to an {@link Appendable} and counts the UTF-8 bytes it encodes to. Only installed by {@link AssWriter} while
+ * instrumentation is enabled.
+ */
+final class CountingWriter extends Writer {
+
+    private final Appendable out;
+
+    private long bytes;
+
+    CountingWriter(Appendable out) {
+        this.out = out;
+    }
+
+    long bytes() {
+        return bytes;
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+        bytes += utf8Length(chars, offset, length);
+        AssWriter.write(out, chars, offset, length);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        bytes += utf8Length((char) c);
+        out.append((char) c);
+    }
+
+    @Override
+    public void write(String string, int offset, int length) throws IOException {
+        append(string, offset, offset + length);
+    }
+
+    @Override
+    public Writer append(CharSequence csq) throws IOException {
+        var sequence = csq == null ? "null" : csq;
+        return append(sequence, 0, sequence.length());
+    }
+
+    @Override
+    public Writer append(CharSequence csq, int start, int end) throws IOException {
+        var sequence = csq == null ? "null" : csq;
+        for (int i = start; i < end; i++) {
+            bytes += utf8Length(sequence.charAt(i));
+        }
+        out.append(sequence, start, end);
+        return this;
+    }
+
+    @Override
+    public Writer append(char c) throws IOException {
+        write(c);
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (out instanceof Flushable flushable) {
+            flushable.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out instanceof Closeable closeable) {
+            closeable.close();
+        } else {
+            flush();
+        }
+    }
+
+    /**
+     * UTF-8 length of {@code chars}; each half of a surrogate pair counts 2 of the pair's 4 bytes.
+     */
+    static long utf8Length(char[] chars, int offset, int length) {
+        long bytes = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            bytes += utf8Length(chars[i]);
+        }
+        return bytes;
+    }
+
+    private static int utf8Length(char c) {
+        if (c < 0x80) {
+            return 1;
+        }
+        return c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+    }
+}
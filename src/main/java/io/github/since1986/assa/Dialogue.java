@@ -1,12 +1,12 @@
 package io.github.since1986.assa;
 
 import lombok.Builder;
+import lombok.Getter;
 
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Optional;
 
-@Builder
+@Builder(toBuilder = true)
+@Getter
 public final class Dialogue {
 
     /**
@@ -87,7 +87,7 @@ public final class Dialogue {
      * fadeawayheight and fadeawaywidth parameters can be used to make the scrolling text at the sides transparent.
      */
     @Builder.Default
-    private Effect effect = new Effect.Undefined();
+    private Effect effect = Effect.UNDEFINED;
 
     /**
      * Subtitle Text. This is the actual text which will be displayed as a subtitle onscreen. Everything after the 9th comma is treated as the subtitle text, so it can include commas.
@@ -98,31 +98,76 @@ public final class Dialogue {
 
     @Override
     public String toString() {
-        var formatter = DateTimeFormatter.ofPattern("H:mm:ss.SS");
-
-        return "Dialogue: %d,%s,%s,%s,%s,%d,%d,%d,%s,%s".formatted(
-                layer,
-                Optional.ofNullable(start).map(v -> v.format(formatter)).orElse(""),
-                Optional.ofNullable(end).map(v -> v.format(formatter)).orElse(""),
-                style,
-                name,
-                marginL,
-                marginR,
-                marginV,
-                effect,
-                tex
-        );
+        return new DialogueEncoder().encode(this).toString();
     }
 
     public interface Effect {
+
+        Effect UNDEFINED = new Undefined();
+
+        /**
+         * Parses the Effect field of an event line; effects not known to SSA are kept as {@link Raw}.
+         */
+        static Effect parse(String text) {
+            if (text == null || text.isEmpty()) {
+                return UNDEFINED;
+            }
+            var parts = text.split(";");
+            try {
+                switch (parts[0]) {
+                    case "Karaoke":
+                        if (parts.length == 1) {
+                            return new Karaoke();
+                        }
+                        break;
+                    case "Scroll up":
+                    case "Scroll down":
+                        if (parts.length == 4 || parts.length == 5) {
+                            int y1 = Integer.parseInt(parts[1].trim());
+                            int y2 = Integer.parseInt(parts[2].trim());
+                            int delay = Integer.parseInt(parts[3].trim());
+                            Integer fadeAwayHeight = parts.length == 5 ? Integer.valueOf(parts[4].trim()) : null;
+                            return parts[0].equals("Scroll up") ? new ScrollUp(y1, y2, delay, fadeAwayHeight) : new ScrollDown(y1, y2, delay, fadeAwayHeight);
+                        }
+                        break;
+                    case "Banner":
+                        if (parts.length >= 2 && parts.length <= 4) {
+                            int delay = Integer.parseInt(parts[1].trim());
+                            boolean leftToRight = parts.length >= 3 && Integer.parseInt(parts[2].trim()) != 0;
+                            Integer fadeAwayWidth = parts.length == 4 ? Integer.valueOf(parts[3].trim()) : null;
+                            return new Banner(delay, leftToRight, fadeAwayWidth);
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            } catch (NumberFormatException e) {
+                return new Raw(text);
+            }
+            return new Raw(text);
+        }
+
+        /**
+         * Has no parameters, so all instances are equal.
+         */
         final class Karaoke implements Effect {
             @Override
             public String toString() {
                 return "Karaoke";
             }
+
+            @Override
+            public boolean equals(Object other) {
+                return other instanceof Karaoke;
+            }
+
+            @Override
+            public int hashCode() {
+                return Karaoke.class.hashCode();
+            }
         }
 
-        record ScrollUp(int y1, int y2, int delay, Integer fadeAwayHeight) {
+        record ScrollUp(int y1, int y2, int delay, Integer fadeAwayHeight) implements Effect {
             @Override
             public String toString() {
                 if (fadeAwayHeight == null) {
@@ -132,7 +177,7 @@ public final class Dialogue {
             }
         }
 
-        record ScrollDown(int y1, int y2, int delay, Integer fadeAwayHeight) {
+        record ScrollDown(int y1, int y2, int delay, Integer fadeAwayHeight) implements Effect {
             @Override
             public String toString() {
                 if (fadeAwayHeight == null) {
@@ -142,7 +187,7 @@ public final class Dialogue {
             }
         }
 
-        record Banner(int delay, boolean leftToRight, Integer fadeAwayWidth) {
+        record Banner(int delay, boolean leftToRight, Integer fadeAwayWidth) implements Effect {
             @Override
             public String toString() {
                 if (fadeAwayWidth == null) {
@@ -152,12 +197,35 @@ public final class Dialogue {
             }
         }
 
+        /**
+         * An effect this library does not model, written back verbatim.
+         */
+        record Raw(String text) implements Effect {
+            @Override
+            public String toString() {
+                return text;
+            }
+        }
+
+        /**
+         * No effect; all instances are equal to {@link #UNDEFINED}.
+         */
         final class Undefined implements Effect {
 
             @Override
             public String toString() {
                 return "";
             }
+
+            @Override
+            public boolean equals(Object other) {
+                return other instanceof Undefined;
+            }
+
+            @Override
+            public int hashCode() {
+                return Undefined.class.hashCode();
+            }
         }
     }
 }
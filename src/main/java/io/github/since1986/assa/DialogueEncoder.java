@@ -0,0 +1,169 @@
+package io.github.since1986.assa;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Encodes {@code Dialogue: ...} lines into a reusable char buffer, so writing a line allocates nothing once the buffer has grown to the longest line.
+ * Not thread-safe; use one encoder per thread.
+ */
+public final class DialogueEncoder {
+
+    private static final char[] PREFIX = "Dialogue: ".toCharArray();
+
+    private char[] buffer = new char[256];
+
+    private int length;
+
+    private Dialogue.Effect lastEffect;
+
+    private String lastEffectText;
+
+    /**
+     * Lines encoded so far, for instrumentation.
+     */
+    private long count;
+
+    public DialogueEncoder encode(Dialogue dialogue) {
+        return encode(
+                dialogue.getLayer(),
+                dialogue.getStart() == null ? -1 : Timestamps.toCentis(dialogue.getStart()),
+                dialogue.getEnd() == null ? -1 : Timestamps.toCentis(dialogue.getEnd()),
+                dialogue.getStyle(),
+                dialogue.getName(),
+                dialogue.getMarginL(),
+                dialogue.getMarginR(),
+                dialogue.getMarginV(),
+                effectText(dialogue.getEffect()),
+                dialogue.getTex()
+        );
+    }
+
+    /**
+     * Encodes a line from its column values; a negative time is rendered as empty, like a {@code null} {@link java.time.LocalTime}.
+     */
+    public DialogueEncoder encode(int layer, int startCentis, int endCentis, String style, String name, int marginL, int marginR, int marginV, String effect, CharSequence tex) {
+        encodeFields(layer, startCentis, endCentis, style, name, marginL, marginR, marginV, effect);
+        append(tex);
+        return this;
+    }
+
+    /**
+     * Same as {@link #encode(int, int, int, String, String, int, int, int, String, CharSequence)} with the text taken from a shared char array.
+     */
+    public DialogueEncoder encode(int layer, int startCentis, int endCentis, String style, String name, int marginL, int marginR, int marginV, String effect, char[] tex, int texOffset, int texLength) {
+        encodeFields(layer, startCentis, endCentis, style, name, marginL, marginR, marginV, effect);
+        append(tex, texOffset, texLength);
+        return this;
+    }
+
+    private void encodeFields(int layer, int startCentis, int endCentis, String style, String name, int marginL, int marginR, int marginV, String effect) {
+        length = 0;
+        count++;
+        append(PREFIX, PREFIX.length);
+        appendInt(layer);
+        appendChar(',');
+        appendTime(startCentis);
+        appendChar(',');
+        appendTime(endCentis);
+        appendChar(',');
+        append(style);
+        appendChar(',');
+        append(name);
+        appendChar(',');
+        appendInt(marginL);
+        appendChar(',');
+        appendInt(marginR);
+        appendChar(',');
+        appendInt(marginV);
+        appendChar(',');
+        append(effect);
+        appendChar(',');
+    }
+
+    long count() {
+        return count;
+    }
+
+    public char[] buffer() {
+        return buffer;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public void writeTo(Appendable out) throws IOException {
+        AssWriter.write(out, buffer, 0, length);
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, length);
+    }
+
+    /**
+     * Renders an effect, reusing the previous text when the same effect instance is seen again, as it is for every line of a generated track.
+     */
+    String effectText(Dialogue.Effect effect) {
+        if (effect instanceof Dialogue.Effect.Undefined) {
+            return "";
+        }
+        if (effect != lastEffect) {
+            lastEffect = effect;
+            lastEffectText = String.valueOf(effect);
+        }
+        return lastEffectText;
+    }
+
+    void appendChar(char c) {
+        ensureCapacity(1);
+        buffer[length++] = c;
+    }
+
+    void append(CharSequence text) {
+        if (text == null) {
+            text = "null";
+        }
+        int count = text.length();
+        ensureCapacity(count);
+        if (text instanceof String string) {
+            string.getChars(0, count, buffer, length);
+        } else if (text instanceof StringBuilder builder) {
+            builder.getChars(0, count, buffer, length);
+        } else {
+            for (int i = 0; i < count; i++) {
+                buffer[length + i] = text.charAt(i);
+            }
+        }
+        length += count;
+    }
+
+    void append(char[] chars, int count) {
+        append(chars, 0, count);
+    }
+
+    void append(char[] chars, int offset, int count) {
+        ensureCapacity(count);
+        System.arraycopy(chars, offset, buffer, length, count);
+        length += count;
+    }
+
+    void appendInt(int value) {
+        ensureCapacity(Numbers.MAX_INT_LENGTH);
+        length = Numbers.encode(value, buffer, length);
+    }
+
+    void appendTime(int centis) {
+        if (centis >= 0) {
+            ensureCapacity(Timestamps.MAX_LENGTH);
+            length = Timestamps.encode(centis, buffer, length);
+        }
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
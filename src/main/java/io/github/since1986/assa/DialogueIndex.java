@@ -0,0 +1,225 @@
+package io.github.since1986.assa;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The byte offset and length of every {@code Dialogue:} line of a written file, in file order, found by one sequential scan.
+ * Lengths exclude the line break. Also records where the {@code [Events]} section ends, which {@link AssPatcher} needs to append lines, and the
+ * lines of that section it has blanked, which it removes when compacting. Not thread-safe.
+ */
+public final class DialogueIndex {
+
+    private static final byte[] DIALOGUE = "Dialogue:".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] EVENTS = "[events]".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int PREFIX_LENGTH = 16;
+
+    private long[] offsets = new long[1024];
+
+    private int[] lengths = new int[1024];
+
+    private int size;
+
+    /**
+     * Offsets of blanked lines, a {@code ;} followed only by spaces, and their lengths including the line break.
+     */
+    private long[] blankOffsets = new long[0];
+
+    private int[] blankLengths = new int[0];
+
+    private int blankCount;
+
+    /**
+     * Offset just after the line break of the last non-empty line of {@code [Events]}, or {@code -1} if the file has no such section.
+     */
+    private long eventsEnd = -1;
+
+    private boolean eventsLast;
+
+    private boolean crlf;
+
+    private DialogueIndex() {
+    }
+
+    /**
+     * Scans {@code channel} from the start, without moving its position.
+     */
+    public static DialogueIndex scan(FileChannel channel) throws IOException {
+        var index = new DialogueIndex();
+        index.read(channel);
+        return index;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The offset of line {@code index}, or {@code -1} once {@link AssPatcher#delete} has removed it.
+     */
+    public long offset(int index) {
+        return offsets[checkIndex(index)];
+    }
+
+    public int length(int index) {
+        return lengths[checkIndex(index)];
+    }
+
+    /**
+     * Whether {@code [Events]} is the last section, so that lines can be appended at the end of the file.
+     */
+    public boolean eventsLast() {
+        return eventsLast;
+    }
+
+    long eventsEnd() {
+        return eventsEnd;
+    }
+
+    boolean crlf() {
+        return crlf;
+    }
+
+    void set(int index, long offset, int length) {
+        offsets[checkIndex(index)] = offset;
+        lengths[index] = length;
+    }
+
+    int add(long offset, int length) {
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+            lengths = Arrays.copyOf(lengths, size * 2);
+        }
+        offsets[size] = offset;
+        lengths[size] = length;
+        return size++;
+    }
+
+    private void addBlank(long offset, int length) {
+        if (blankCount == blankOffsets.length) {
+            blankOffsets = Arrays.copyOf(blankOffsets, Math.max(16, blankCount * 2));
+            blankLengths = Arrays.copyOf(blankLengths, blankOffsets.length);
+        }
+        blankOffsets[blankCount] = offset;
+        blankLengths[blankCount++] = length;
+    }
+
+    void eventsEnd(long eventsEnd) {
+        this.eventsEnd = eventsEnd;
+    }
+
+    int blankCount() {
+        return blankCount;
+    }
+
+    long blankOffset(int index) {
+        return blankOffsets[index];
+    }
+
+    int blankLength(int index) {
+        return blankLengths[index];
+    }
+
+    private void read(FileChannel channel) throws IOException {
+        var buffer = ByteBuffer.allocate(1 << 16);
+        var prefix = new byte[PREFIX_LENGTH];
+        int prefixLength = 0;
+        long position = 0;
+        long lineStart = 0;
+        boolean inEvents = false;
+        boolean firstLine = true;
+        boolean blank = false;
+        int previous = -1;
+        while (channel.read(buffer, position) > 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                long offset = position++;
+                if (b != '\n') {
+                    blank = offset == lineStart ? b == ';' : blank && (b == ' ' || b == '\r');
+                    if (prefixLength < PREFIX_LENGTH) {
+                        prefix[prefixLength++] = b;
+                    }
+                    previous = b;
+                    continue;
+                }
+                int length = (int) (offset - lineStart) - (previous == '\r' ? 1 : 0);
+                if (firstLine) {
+                    crlf = previous == '\r';
+                }
+                int skip = firstLine && startsWith(prefix, prefixLength, 0, new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF}) ? 3 : 0;
+                inEvents = line(prefix, Math.min(prefixLength, length), skip, lineStart, length, offset + 1, inEvents, blank);
+                lineStart = offset + 1;
+                prefixLength = 0;
+                blank = false;
+                firstLine = false;
+                previous = b;
+            }
+            buffer.clear();
+        }
+        if (position > lineStart) {
+            int length = (int) (position - lineStart) - (previous == '\r' ? 1 : 0);
+            line(prefix, Math.min(prefixLength, length), 0, lineStart, length, position, inEvents, blank);
+        }
+    }
+
+    /**
+     * Handles one line and returns whether the following line is in {@code [Events]}.
+     */
+    private boolean line(byte[] prefix, int prefixLength, int skip, long offset, int length, long next, boolean inEvents, boolean blank) {
+        if (prefixLength > skip && prefix[skip] == '[') {
+            boolean events = startsWithIgnoreCase(prefix, prefixLength, skip, EVENTS);
+            if (events) {
+                eventsEnd = next;
+            }
+            eventsLast = events;
+            return events;
+        }
+        if (inEvents && length > 0) {
+            eventsEnd = next;
+            if (startsWith(prefix, prefixLength, skip, DIALOGUE)) {
+                add(offset, length);
+            } else if (blank && length > 1) {
+                addBlank(offset, (int) (next - offset));
+            }
+        }
+        return inEvents;
+    }
+
+    private static boolean startsWith(byte[] prefix, int prefixLength, int from, byte[] expected) {
+        if (prefixLength - from < expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (prefix[from + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsWithIgnoreCase(byte[] prefix, int prefixLength, int from, byte[] lowerCase) {
+        if (prefixLength - from < lowerCase.length) {
+            return false;
+        }
+        for (int i = 0; i < lowerCase.length; i++) {
+            int b = prefix[from + i];
+            if ((b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b) != lowerCase[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index %d out of bounds for size %d".formatted(index, size));
+        }
+        return index;
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.since1986.assa;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * An {@link EventSection} whose dialogues are produced while it is being written, so a track of any length is never held in memory.
+ * Each iteration opens its source afresh, so it can be iterated, validated and written any number of times, as an {@link Iterable} should be;
+ * the source must produce the same dialogues each time it is opened.
+ */
+public final class DialogueStream implements EventSection {
+
+    private final Supplier<? extends Stream<Dialogue>> source;
+
+    private DialogueStream(Supplier<? extends Stream<Dialogue>> source) {
+        this.source = source;
+    }
+
+    /**
+     * Opens a new stream from {@code source} for each iteration, eg. {@code () -> reader.dialogues()} over a freshly opened {@link AssReader}.
+     * {@link #writeLines} closes the stream it opened; a caller of {@link #iterator()} or {@link #stream()} closes what it gets.
+     */
+    public static DialogueStream of(Supplier<? extends Stream<Dialogue>> source) {
+        return new DialogueStream(source);
+    }
+
+    /**
+     * Asks {@code source} for a new generator for each iteration, and calls that generator until it returns {@code null}.
+     */
+    public static DialogueStream generate(Supplier<? extends Supplier<Dialogue>> source) {
+        return new DialogueStream(() -> {
+            var generator = source.get();
+            return Stream.iterate(generator.get(), dialogue -> dialogue != null, dialogue -> generator.get());
+        });
+    }
+
+    /**
+     * Opens the source.
+     */
+    public Stream<Dialogue> stream() {
+        return source.get();
+    }
+
+    @Override
+    public Iterator<Dialogue> iterator() {
+        return stream().iterator();
+    }
+
+    @Override
+    public void writeLines(AssWriter writer) throws IOException {
+        try (var dialogues = stream()) {
+            boolean first = true;
+            for (var iterator = dialogues.iterator(); iterator.hasNext(); first = false) {
+                if (!first) {
+                    writer.out().append('\n');
+                }
+                writer.writeDialogue(iterator.next());
+            }
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package io.github.since1986.assa;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A column-oriented {@link EventSection} for very large tracks.
+ * Times are stored as centiseconds ({@code -1} for no time), layers and margins as {@code int} columns, style, name and effect as ids into
+ * pools of distinct values, and all texts back to back in one shared char array. {@link Dialogue} objects are only created when iterating.
+ * A table created with a {@link Styles} registry uses the registry's handle indexes as style ids, so rows appended by {@link Styles.Handle} need no
+ * lookup when appended or written. Not thread-safe.
+ */
+public final class DialogueTable implements EventSection {
+
+    private final Pool<String> styles = new Pool<>();
+
+    private final Pool<String> names = new Pool<>();
+
+    private final Pool<String> effectTexts = new Pool<>();
+
+    private final List<Dialogue.Effect> effects = new ArrayList<>();
+
+    private final BitSet marked = new BitSet();
+
+    /**
+     * The registry whose handles can be appended, or {@code null}.
+     */
+    private final Styles registry;
+
+    private int size;
+
+    private int[] layer;
+
+    private int[] start;
+
+    private int[] end;
+
+    private int[] style;
+
+    private int[] name;
+
+    private int[] marginL;
+
+    private int[] marginR;
+
+    private int[] marginV;
+
+    private int[] effect;
+
+    /**
+     * End offset of each text in {@link #chars}; text {@code i} starts where text {@code i - 1} ends.
+     */
+    private int[] textEnd;
+
+    private char[] chars;
+
+    private int charCount;
+
+    public DialogueTable() {
+        this(16);
+    }
+
+    public DialogueTable(int expectedSize) {
+        this(null, expectedSize);
+    }
+
+    public DialogueTable(Styles registry) {
+        this(registry, 16);
+    }
+
+    public DialogueTable(Styles registry, int expectedSize) {
+        this.registry = registry;
+        if (registry != null) {
+            registry.styles().forEach(style -> styles.id(style.getName()));
+        }
+        int capacity = Math.max(expectedSize, 1);
+        layer = new int[capacity];
+        start = new int[capacity];
+        end = new int[capacity];
+        style = new int[capacity];
+        name = new int[capacity];
+        marginL = new int[capacity];
+        marginR = new int[capacity];
+        marginV = new int[capacity];
+        effect = new int[capacity];
+        textEnd = new int[capacity];
+        chars = new char[capacity * 32];
+    }
+
+    /**
+     * A copy with the same rows and registry, made with array copies.
+     */
+    DialogueTable copy() {
+        return new DialogueTable(registry, size).appendAll(this);
+    }
+
+    public static DialogueTable of(Iterable<Dialogue> dialogues) {
+        var table = new DialogueTable();
+        table.appendAll(dialogues);
+        return table;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public DialogueTable append(Dialogue dialogue) {
+        int index = append(
+                dialogue.getLayer(),
+                dialogue.getStart() == null ? -1 : Timestamps.toCentis(dialogue.getStart()),
+                dialogue.getEnd() == null ? -1 : Timestamps.toCentis(dialogue.getEnd()),
+                dialogue.getStyle(),
+                dialogue.getName(),
+                dialogue.getMarginL(),
+                dialogue.getMarginR(),
+                dialogue.getMarginV(),
+                dialogue.getEffect(),
+                dialogue.getTex()
+        );
+        if (dialogue.isMarked()) {
+            marked.set(index);
+        }
+        return this;
+    }
+
+    public DialogueTable appendAll(Iterable<Dialogue> dialogues) {
+        if (dialogues instanceof DialogueTable table) {
+            return appendAll(table);
+        }
+        for (var dialogue : dialogues) {
+            append(dialogue);
+        }
+        return this;
+    }
+
+    /**
+     * Appends all rows of another table with array copies; only its pooled values are looked up again.
+     */
+    public DialogueTable appendAll(DialogueTable other) {
+        int count = other.size;
+        ensureCapacity(size + count);
+        ensureCharCapacity(charCount + other.charCount);
+        System.arraycopy(other.layer, 0, layer, size, count);
+        System.arraycopy(other.start, 0, start, size, count);
+        System.arraycopy(other.end, 0, end, size, count);
+        System.arraycopy(other.marginL, 0, marginL, size, count);
+        System.arraycopy(other.marginR, 0, marginR, size, count);
+        System.arraycopy(other.marginV, 0, marginV, size, count);
+        var styleIds = remap(other.styles, styles);
+        var nameIds = remap(other.names, names);
+        var effectIds = new int[other.effects.size()];
+        for (int i = 0; i < effectIds.length; i++) {
+            effectIds[i] = effectId(other.effects.get(i));
+        }
+        for (int i = 0; i < count; i++) {
+            style[size + i] = styleIds[other.style[i]];
+            name[size + i] = nameIds[other.name[i]];
+            effect[size + i] = effectIds[other.effect[i]];
+            textEnd[size + i] = other.textEnd[i] + charCount;
+            if (other.marked.get(i)) {
+                marked.set(size + i);
+            }
+        }
+        System.arraycopy(other.chars, 0, chars, charCount, other.charCount);
+        charCount += other.charCount;
+        size += count;
+        return this;
+    }
+
+    /**
+     * Appends one row from column values, returning its index; a negative time means no time.
+     */
+    public int append(int layer, int startCentis, int endCentis, String style, String name, int marginL, int marginR, int marginV, Dialogue.Effect effect, CharSequence tex) {
+        return append(layer, startCentis, endCentis, styles.id(style), name, marginL, marginR, marginV, effect, tex);
+    }
+
+    /**
+     * Same as {@link #append(int, int, int, String, String, int, int, int, Dialogue.Effect, CharSequence)} with the style given by a handle of the
+     * registry this table was created with, which is stored as is.
+     */
+    public int append(int layer, int startCentis, int endCentis, Styles.Handle style, String name, int marginL, int marginR, int marginV, Dialogue.Effect effect, CharSequence tex) {
+        if (registry == null || style.registry() != registry) {
+            throw new IllegalArgumentException("Style %s is not a handle of this table's registry".formatted(style.name()));
+        }
+        return append(layer, startCentis, endCentis, style.index(), name, marginL, marginR, marginV, effect, tex);
+    }
+
+    private int append(int layer, int startCentis, int endCentis, int styleId, String name, int marginL, int marginR, int marginV, Dialogue.Effect effect, CharSequence tex) {
+        ensureCapacity(size + 1);
+        int index = size;
+        this.layer[index] = layer;
+        this.start[index] = startCentis < 0 ? -1 : startCentis;
+        this.end[index] = endCentis < 0 ? -1 : endCentis;
+        this.style[index] = styleId;
+        this.name[index] = names.id(name);
+        this.marginL[index] = marginL;
+        this.marginR[index] = marginR;
+        this.marginV[index] = marginV;
+        this.effect[index] = effectId(effect);
+        var text = tex == null ? "null" : tex;
+        int length = text.length();
+        ensureCharCapacity(charCount + length);
+        if (text instanceof String string) {
+            string.getChars(0, length, chars, charCount);
+        } else {
+            for (int i = 0; i < length; i++) {
+                chars[charCount + i] = text.charAt(i);
+            }
+        }
+        charCount += length;
+        textEnd[index] = charCount;
+        size++;
+        return index;
+    }
+
+    public int layer(int index) {
+        return layer[checkIndex(index)];
+    }
+
+    public int startCentis(int index) {
+        return start[checkIndex(index)];
+    }
+
+    public int endCentis(int index) {
+        return end[checkIndex(index)];
+    }
+
+    /**
+     * Replaces the times of one row; a negative time means no time. Rows may be updated from several threads as long as each row is updated by one.
+     */
+    public void setTimes(int index, int startCentis, int endCentis) {
+        checkIndex(index);
+        start[index] = startCentis < 0 ? -1 : startCentis;
+        end[index] = endCentis < 0 ? -1 : endCentis;
+    }
+
+    public String style(int index) {
+        return styles.get(style[checkIndex(index)]);
+    }
+
+    public String name(int index) {
+        return names.get(name[checkIndex(index)]);
+    }
+
+    public int marginL(int index) {
+        return marginL[checkIndex(index)];
+    }
+
+    public int marginR(int index) {
+        return marginR[checkIndex(index)];
+    }
+
+    public int marginV(int index) {
+        return marginV[checkIndex(index)];
+    }
+
+    public Dialogue.Effect effect(int index) {
+        return effects.get(effect[checkIndex(index)]);
+    }
+
+    public String text(int index) {
+        int from = textStart(checkIndex(index));
+        return new String(chars, from, textEnd[index] - from);
+    }
+
+    /**
+     * Whether text {@code index} contains a raw {@code '\r'} or {@code '\n'}, checked in place.
+     */
+    boolean hasLineBreak(int index) {
+        for (int i = textStart(checkIndex(index)); i < textEnd[index]; i++) {
+            if (chars[i] == '\n' || chars[i] == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Dialogue get(int index) {
+        checkIndex(index);
+        return Dialogue.builder()
+                .marked(marked.get(index))
+                .layer(layer[index])
+                .start(start[index] < 0 ? null : Timestamps.ofCentis(start[index]))
+                .end(end[index] < 0 ? null : Timestamps.ofCentis(end[index]))
+                .style(styles.get(style[index]))
+                .name(names.get(name[index]))
+                .marginL(marginL[index])
+                .marginR(marginR[index])
+                .marginV(marginV[index])
+                .effect(effects.get(effect[index]))
+                .tex(text(index))
+                .build();
+    }
+
+    /**
+     * Shrinks the columns to the current size once the table is complete.
+     */
+    public void trimToSize() {
+        resize(size);
+        chars = Arrays.copyOf(chars, charCount);
+    }
+
+    @Override
+    public Iterator<Dialogue> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Dialogue next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return get(next++);
+            }
+        };
+    }
+
+    @Override
+    public void writeLines(AssWriter writer) throws IOException {
+        writeLines(writer.encoder(), writer.out(), 0, size);
+    }
+
+    /**
+     * Writes rows {@code [from, to)} straight from the columns, separated by {@code '\n'}.
+     */
+    void writeLines(DialogueEncoder encoder, Appendable out, int from, int to) throws IOException {
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                out.append('\n');
+            }
+            encode(encoder, i).writeTo(out);
+        }
+    }
+
+    DialogueEncoder encode(DialogueEncoder encoder, int index) {
+        int textStart = textStart(index);
+        return encoder.encode(
+                layer[index],
+                start[index],
+                end[index],
+                styles.get(style[index]),
+                names.get(name[index]),
+                marginL[index],
+                marginR[index],
+                marginV[index],
+                effectTexts.get(effect[index]),
+                chars,
+                textStart,
+                textEnd[index] - textStart
+        );
+    }
+
+    @Override
+    public String toString() {
+        return AssWriter.render(writer -> writer.writeEvent(this));
+    }
+
+    private int textStart(int index) {
+        return index == 0 ? 0 : textEnd[index - 1];
+    }
+
+    private int effectId(Dialogue.Effect effect) {
+        var text = effect instanceof Dialogue.Effect.Undefined ? "" : String.valueOf(effect);
+        int id = effectTexts.id(text);
+        if (id == effects.size()) {
+            effects.add(effect);
+        }
+        return id;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index %d out of bounds for size %d".formatted(index, size));
+        }
+        return index;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > layer.length) {
+            resize(Math.max(capacity, layer.length + (layer.length >> 1)));
+        }
+    }
+
+    private void resize(int capacity) {
+        layer = Arrays.copyOf(layer, capacity);
+        start = Arrays.copyOf(start, capacity);
+        end = Arrays.copyOf(end, capacity);
+        style = Arrays.copyOf(style, capacity);
+        name = Arrays.copyOf(name, capacity);
+        marginL = Arrays.copyOf(marginL, capacity);
+        marginR = Arrays.copyOf(marginR, capacity);
+        marginV = Arrays.copyOf(marginV, capacity);
+        effect = Arrays.copyOf(effect, capacity);
+        textEnd = Arrays.copyOf(textEnd, capacity);
+    }
+
+    private void ensureCharCapacity(int capacity) {
+        if (capacity > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(capacity, chars.length + (chars.length >> 1)));
+        }
+    }
+
+    private static int[] remap(Pool<String> from, Pool<String> to) {
+        var ids = new int[from.values.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = to.id(from.values.get(i));
+        }
+        return ids;
+    }
+
+    /**
+     * Interns values to dense int ids.
+     */
+    private static final class Pool<T> {
+
+        private final Map<T, Integer> ids = new HashMap<>();
+
+        private final List<T> values = new ArrayList<>();
+
+        int id(T value) {
+            var id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                ids.put(value, id);
+                values.add(value);
+            }
+            return id;
+        }
+
+        T get(int id) {
+            return values.get(id);
+        }
+    }
+}
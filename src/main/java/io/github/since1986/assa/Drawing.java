@@ -0,0 +1,294 @@
+package io.github.since1986.assa;
+
+import java.util.Arrays;
+
+/**
+ * Builds the path of a <code>{\p1}</code> drawing from {@code m} (move), {@code l} (line) and {@code b} (cubic Bézier) commands.
+ * {@link #simplify(double)} thins out dense exports before writing: runs of lines are reduced with Douglas-Peucker, and curves that are flat
+ * within the tolerance become lines. Coordinates are written as integers at the drawing's scale, where level {@code N} means
+ * {@code 2^(N-1)} units per pixel, and points that round onto the previous one are dropped.
+ * Not thread-safe.
+ */
+public final class Drawing {
+
+    private static final byte MOVE = 'm';
+
+    private static final byte LINE = 'l';
+
+    private static final byte BEZIER = 'b';
+
+    private final int scale;
+
+    private byte[] commands = new byte[16];
+
+    /**
+     * The end point of each command, preceded by its two control points for {@link #BEZIER}.
+     */
+    private double[] points = new double[64];
+
+    private int commandCount;
+
+    private int pointCount;
+
+    public Drawing() {
+        this(1);
+    }
+
+    /**
+     * @param scale the {@code \p} level, {@code 1} for pixel coordinates
+     */
+    public Drawing(int scale) {
+        if (scale < 1 || scale > 31) {
+            throw new IllegalArgumentException("Scale must be between 1 and 31: " + scale);
+        }
+        this.scale = scale;
+    }
+
+    public Drawing moveTo(double x, double y) {
+        return command(MOVE).point(x, y);
+    }
+
+    public Drawing lineTo(double x, double y) {
+        checkStarted();
+        return command(LINE).point(x, y);
+    }
+
+    public Drawing bezierTo(double x1, double y1, double x2, double y2, double x3, double y3) {
+        checkStarted();
+        return command(BEZIER).point(x1, y1).point(x2, y2).point(x3, y3);
+    }
+
+    /**
+     * Lines through {@code xy}, given as {@code x0, y0, x1, y1, ...}.
+     */
+    public Drawing polyline(double... xy) {
+        if ((xy.length & 1) != 0) {
+            throw new IllegalArgumentException("Expected x, y pairs");
+        }
+        for (int i = 0; i < xy.length; i += 2) {
+            lineTo(xy[i], xy[i + 1]);
+        }
+        return this;
+    }
+
+    public int size() {
+        return commandCount;
+    }
+
+    public boolean isEmpty() {
+        return commandCount == 0;
+    }
+
+    public Drawing clear() {
+        commandCount = 0;
+        pointCount = 0;
+        return this;
+    }
+
+    /**
+     * Removes points that deviate less than {@code tolerance} pixels from the simplified path.
+     */
+    public Drawing simplify(double tolerance) {
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("Negative tolerance: " + tolerance);
+        }
+        flattenCurves(tolerance);
+        var keep = new boolean[pointCount / 2];
+        var stack = new int[64];
+        int point = 0;
+        for (int i = 0; i < commandCount; ) {
+            if (commands[i] != LINE) {
+                keep[point] = true;
+                point += commands[i] == BEZIER ? 3 : 1;
+                keep[point - 1] = true;
+                i++;
+                continue;
+            }
+            // A run of lines starts at the previous command's end point, which is already kept
+            int first = point - 1;
+            while (i < commandCount && commands[i] == LINE) {
+                i++;
+                point++;
+            }
+            int last = point - 1;
+            keep[last] = true;
+            stack = douglasPeucker(first, last, tolerance * tolerance, keep, stack);
+        }
+        compact(keep);
+        return this;
+    }
+
+    /**
+     * Appends the path, eg. {@code m 0 0 l 100 0 100 100}; repeated commands are written once.
+     */
+    public StringBuilder appendTo(StringBuilder target) {
+        double factor = 1 << (scale - 1);
+        byte previous = 0;
+        long lastX = Long.MIN_VALUE;
+        long lastY = Long.MIN_VALUE;
+        int point = 0;
+        for (int i = 0; i < commandCount; i++) {
+            byte command = commands[i];
+            int count = command == BEZIER ? 3 : 1;
+            long x = Math.round(points[(point + count - 1) * 2] * factor);
+            long y = Math.round(points[(point + count - 1) * 2 + 1] * factor);
+            if (command == LINE && x == lastX && y == lastY) {
+                point++;
+                continue;
+            }
+            if (command != previous || command == MOVE) {
+                if (previous != 0) {
+                    target.append(' ');
+                }
+                target.append((char) command);
+                previous = command;
+            }
+            for (int p = point; p < point + count; p++) {
+                target.append(' ').append(Math.round(points[p * 2] * factor)).append(' ').append(Math.round(points[p * 2 + 1] * factor));
+            }
+            lastX = x;
+            lastY = y;
+            point += count;
+        }
+        return target;
+    }
+
+    /**
+     * The Text field of a drawing line: {@code tags}, if any, then <code>{\pN}</code>, the path and <code>{\p0}</code>.
+     */
+    public String tex(OverrideTags tags) {
+        var target = new StringBuilder(pointCount * 6 + 16);
+        if (tags != null) {
+            tags.appendTo(target);
+        }
+        target.append("{\\p").append(scale).append('}');
+        appendTo(target);
+        return target.append("{\\p0}").toString();
+    }
+
+    public String tex() {
+        return tex(null);
+    }
+
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(pointCount * 6)).toString();
+    }
+
+    private Drawing command(byte command) {
+        if (commandCount == commands.length) {
+            commands = Arrays.copyOf(commands, commandCount * 2);
+        }
+        commands[commandCount++] = command;
+        return this;
+    }
+
+    private Drawing point(double x, double y) {
+        if (pointCount + 2 > points.length) {
+            points = Arrays.copyOf(points, points.length * 2);
+        }
+        points[pointCount++] = x;
+        points[pointCount++] = y;
+        return this;
+    }
+
+    private void checkStarted() {
+        if (commandCount == 0) {
+            throw new IllegalStateException("A drawing starts with moveTo");
+        }
+    }
+
+    /**
+     * Turns each curve whose control points lie within {@code tolerance} of its chord into a line, dropping the control points.
+     */
+    private void flattenCurves(double tolerance) {
+        double squaredTolerance = tolerance * tolerance;
+        int read = 0;
+        int write = 0;
+        for (int i = 0; i < commandCount; i++) {
+            int count = commands[i] == BEZIER ? 3 : 1;
+            if (commands[i] == BEZIER) {
+                double x0 = points[read - 2];
+                double y0 = points[read - 1];
+                double x3 = points[read + 4];
+                double y3 = points[read + 5];
+                if (squaredDistance(points[read], points[read + 1], x0, y0, x3, y3) <= squaredTolerance
+                        && squaredDistance(points[read + 2], points[read + 3], x0, y0, x3, y3) <= squaredTolerance) {
+                    commands[i] = LINE;
+                    read += 4;
+                    count = 1;
+                }
+            }
+            System.arraycopy(points, read, points, write, count * 2);
+            read += count * 2;
+            write += count * 2;
+        }
+        pointCount = write;
+    }
+
+    /**
+     * Marks the points of {@code (first, last)} to keep, iteratively so that long runs cannot overflow the call stack.
+     */
+    private int[] douglasPeucker(int first, int last, double squaredTolerance, boolean[] keep, int[] stack) {
+        int top = 0;
+        stack[top++] = first;
+        stack[top++] = last;
+        while (top > 0) {
+            int to = stack[--top];
+            int from = stack[--top];
+            double max = -1;
+            int farthest = -1;
+            for (int p = from + 1; p < to; p++) {
+                double distance = squaredDistance(points[p * 2], points[p * 2 + 1], points[from * 2], points[from * 2 + 1], points[to * 2], points[to * 2 + 1]);
+                if (distance > max) {
+                    max = distance;
+                    farthest = p;
+                }
+            }
+            if (farthest >= 0 && max > squaredTolerance) {
+                keep[farthest] = true;
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = from;
+                stack[top++] = farthest;
+                stack[top++] = farthest;
+                stack[top++] = to;
+            }
+        }
+        return stack;
+    }
+
+    /**
+     * Drops the line commands whose end point is not kept.
+     */
+    private void compact(boolean[] keep) {
+        int point = 0;
+        int writeCommand = 0;
+        int writePoint = 0;
+        for (int i = 0; i < commandCount; i++) {
+            int count = commands[i] == BEZIER ? 3 : 1;
+            if (commands[i] != LINE || keep[point]) {
+                commands[writeCommand++] = commands[i];
+                System.arraycopy(points, point * 2, points, writePoint * 2, count * 2);
+                writePoint += count;
+            }
+            point += count;
+        }
+        commandCount = writeCommand;
+        pointCount = writePoint * 2;
+    }
+
+    /**
+     * Squared distance from {@code (x, y)} to the segment {@code (x0, y0)-(x1, y1)}.
+     */
+    private static double squaredDistance(double x, double y, double x0, double y0, double x1, double y1) {
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double length = dx * dx + dy * dy;
+        double t = length == 0 ? 0 : Math.max(0, Math.min(1, ((x - x0) * dx + (y - y0) * dy) / length));
+        double px = x0 + t * dx - x;
+        double py = y0 + t * dy - y;
+        return px * px + py * py;
+    }
+}
@@ -1,21 +1,18 @@
 package io.github.since1986.assa;
 
 import java.util.Arrays;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Collections;
+import java.util.Iterator;
 
-public record Event(Dialogue... items) {
+public record Event(Dialogue... items) implements EventSection {
 
     @Override
-    public String toString() {
-        var collected = Arrays.stream(Optional.ofNullable(items).orElse(new Dialogue[]{}))
-                .map(Dialogue::toString)
-                .collect(Collectors.joining("\n"));
+    public Iterator<Dialogue> iterator() {
+        return items == null ? Collections.emptyIterator() : Arrays.asList(items).iterator();
+    }
 
-        return """
-                [Events]
-                Format: Layer, Start, End, Style, Name, MarginL, MarginR, MarginV, Effect, Text
-                %s
-                """.formatted(collected);
+    @Override
+    public String toString() {
+        return AssWriter.render(writer -> writer.writeEvent(this));
     }
 }
@@ -0,0 +1,23 @@
+package io.github.since1986.assa;
+
+import java.io.IOException;
+
+/**
+ * The dialogues of an {@code [Events]} section, in output order.
+ */
+public interface EventSection extends Iterable<Dialogue> {
+
+    /**
+     * Writes the {@code Dialogue:} lines separated by {@code '\n'}, without a trailing line break.
+     */
+    default void writeLines(AssWriter writer) throws IOException {
+        boolean first = true;
+        for (var dialogue : this) {
+            if (!first) {
+                writer.out().append('\n');
+            }
+            writer.writeDialogue(dialogue);
+            first = false;
+        }
+    }
+}
@@ -3,4 +3,13 @@ package io.github.since1986.assa;
 public interface IntValueBased {
 
     int intValue();
+
+    static <E extends Enum<E> & IntValueBased> E valueOf(Class<E> type, int value) {
+        for (var constant : type.getEnumConstants()) {
+            if (constant.intValue() == value) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("No %s with value %d".formatted(type.getSimpleName(), value));
+    }
 }
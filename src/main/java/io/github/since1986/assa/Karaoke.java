@@ -0,0 +1,140 @@
+package io.github.since1986.assa;
+
+/**
+ * Builds karaoke text such as <code>{\k25}Ka{\k30}ra{\k45}o{\k50}ke</code> from syllable timings.
+ * Millisecond timings are turned into centiseconds by rounding each syllable boundary, not each duration, so the durations always add up to exactly
+ * the line's rounded length and no drift accumulates over long lines.
+ * One instance reuses its text buffer across lines, eg. for a whole album written into a {@link DialogueTable}. Not thread-safe.
+ */
+public final class Karaoke {
+
+    private final Tag tag;
+
+    private final StringBuilder text = new StringBuilder(256);
+
+    public Karaoke(Tag tag) {
+        this.tag = tag;
+    }
+
+    /**
+     * @param durations the duration of each syllable, in centiseconds
+     */
+    public StringBuilder text(CharSequence[] syllables, int[] durations) {
+        if (syllables.length != durations.length) {
+            throw new IllegalArgumentException("Expected one duration per syllable");
+        }
+        text.setLength(0);
+        for (int i = 0; i < syllables.length; i++) {
+            appendSyllable(syllables[i], durations[i]);
+        }
+        return text;
+    }
+
+    /**
+     * @param boundaries the start of each syllable followed by the end of the last one, in milliseconds; {@code syllables.length + 1} values
+     */
+    public StringBuilder textAt(CharSequence[] syllables, long[] boundaries) {
+        if (boundaries.length != syllables.length + 1) {
+            throw new IllegalArgumentException("Expected syllables.length + 1 boundaries");
+        }
+        text.setLength(0);
+        long previous = toCentis(boundaries[0]);
+        for (int i = 0; i < syllables.length; i++) {
+            if (boundaries[i + 1] < boundaries[i]) {
+                throw new IllegalArgumentException("Boundaries must not decrease, at " + (i + 1));
+            }
+            long next = toCentis(boundaries[i + 1]);
+            appendSyllable(syllables[i], (int) (next - previous));
+            previous = next;
+        }
+        return text;
+    }
+
+    /**
+     * @param durations the duration of each syllable, in milliseconds, starting at 0
+     */
+    public StringBuilder textFromMillis(CharSequence[] syllables, long[] durations) {
+        return textAt(syllables, boundaries(durations));
+    }
+
+    /**
+     * Builds a timed dialogue spanning the syllables.
+     *
+     * @param boundaries as for {@link #textAt(CharSequence[], long[])}
+     */
+    public Dialogue dialogue(String style, CharSequence[] syllables, long[] boundaries) {
+        var tex = textAt(syllables, boundaries).toString();
+        return Dialogue.builder()
+                .start(Timestamps.ofCentis((int) toCentis(boundaries[0])))
+                .end(Timestamps.ofCentis((int) toCentis(boundaries[boundaries.length - 1])))
+                .style(style)
+                .tex(tex)
+                .build();
+    }
+
+    /**
+     * Appends a timed line to {@code table} straight from the reused buffer and returns its index.
+     *
+     * @param boundaries as for {@link #textAt(CharSequence[], long[])}
+     */
+    public int appendTo(DialogueTable table, String style, CharSequence[] syllables, long[] boundaries) {
+        var tex = textAt(syllables, boundaries);
+        return table.append(
+                0,
+                (int) toCentis(boundaries[0]),
+                (int) toCentis(boundaries[boundaries.length - 1]),
+                style,
+                "",
+                0,
+                0,
+                0,
+                Dialogue.Effect.UNDEFINED,
+                tex
+        );
+    }
+
+    private void appendSyllable(CharSequence syllable, int duration) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Negative duration: " + duration);
+        }
+        text.append("{\\").append(tag.tag).append(duration).append('}').append(syllable);
+    }
+
+    private static long[] boundaries(long[] durations) {
+        var boundaries = new long[durations.length + 1];
+        for (int i = 0; i < durations.length; i++) {
+            boundaries[i + 1] = boundaries[i] + durations[i];
+        }
+        return boundaries;
+    }
+
+    /**
+     * Rounds half up, to the nearest centisecond.
+     */
+    private static long toCentis(long millis) {
+        return Math.floorDiv(millis + 5, 10);
+    }
+
+    public enum Tag {
+        /**
+         * {@code \k}: the syllable is highlighted instantly when its time comes.
+         */
+        K("k"),
+
+        /**
+         * {@code \kf}: the highlight sweeps from left to right over the syllable's duration.
+         */
+        KF("kf"),
+
+        /**
+         * {@code \ko}: like {@code \k}, but the outline is hidden until the syllable is highlighted.
+         */
+        KO("ko");
+
+        private final String tag;
+
+        Tag(String tag) {
+            this.tag = tag;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.since1986.assa;
+
+import lombok.Builder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Assigns every timed dialogue to one of {@link #lanes} horizontal lanes so that lines on the same lane never overlap in time, eg. for danmaku-style
+ * comment tracks. Lane {@code n} gets layer {@code baseLayer + n} and marginV {@code baseMarginV + n * laneHeight}: lines on different layers are
+ * skipped by the renderer's collision detection, and lines on the same layer never collide, so the player has nothing left to resolve.
+ * A sweep over start times with two heaps (free lanes, busy lanes by end time) runs in O(n log n).
+ */
+@Builder
+public final class LaneAllocator {
+
+    @Builder.Default
+    private int lanes = 10;
+
+    /**
+     * Vertical distance between lanes, in pixels of the script resolution.
+     */
+    @Builder.Default
+    private int laneHeight = 40;
+
+    @Builder.Default
+    private int baseMarginV = 10;
+
+    @Builder.Default
+    private int baseLayer = 0;
+
+    /**
+     * Returns the dialogues in their original order with layer and marginV assigned. Dialogues without start or end are kept as they are.
+     * When all lanes are busy, a line goes to the lane that frees up first and is counted in {@link Result#overflowed()}.
+     */
+    public Result allocate(EventSection event) {
+        if (lanes <= 0) {
+            throw new IllegalArgumentException("lanes must be positive: " + lanes);
+        }
+        var dialogues = new ArrayList<Dialogue>();
+        event.forEach(dialogues::add);
+        int count = dialogues.size();
+        var starts = new int[count];
+        var ends = new int[count];
+        // start in the high half and index in the low half, so that sorting orders by start, then by position
+        var order = new long[count];
+        int timed = 0;
+        for (int i = 0; i < count; i++) {
+            var dialogue = dialogues.get(i);
+            if (dialogue != null && dialogue.getStart() != null && dialogue.getEnd() != null) {
+                starts[i] = Timestamps.toCentis(dialogue.getStart());
+                ends[i] = Timestamps.toCentis(dialogue.getEnd());
+                order[timed++] = (long) starts[i] << 32 | i;
+            }
+        }
+        Arrays.sort(order, 0, timed);
+
+        var free = new PriorityQueue<Integer>();
+        for (int lane = 0; lane < lanes; lane++) {
+            free.add(lane);
+        }
+        // busy lanes as {end, lane}, earliest end first
+        var busy = new PriorityQueue<int[]>((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]));
+        var assigned = new int[count];
+        Arrays.fill(assigned, -1);
+        int overflowed = 0;
+        for (int o = 0; o < timed; o++) {
+            int index = (int) order[o];
+            while (!busy.isEmpty() && busy.peek()[0] <= starts[index]) {
+                free.add(busy.poll()[1]);
+            }
+            int lane;
+            if (free.isEmpty()) {
+                lane = busy.poll()[1];
+                overflowed++;
+            } else {
+                lane = free.poll();
+            }
+            busy.add(new int[]{ends[index], lane});
+            assigned[index] = lane;
+        }
+
+        var result = new Dialogue[count];
+        for (int i = 0; i < count; i++) {
+            var dialogue = dialogues.get(i);
+            result[i] = assigned[i] < 0 ? dialogue : dialogue.toBuilder()
+                    .layer(baseLayer + assigned[i])
+                    .marginV(baseMarginV + assigned[i] * laneHeight)
+                    .build();
+        }
+        return new Result(new Event(result), overflowed);
+    }
+
+    /**
+     * @param overflowed the number of lines placed on a lane that was still busy
+     */
+    public record Result(Event event, int overflowed) {
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.since1986.assa;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Merges several start-time-sorted tracks, eg. dialogue, signs and karaoke, into one start-time-sorted {@link EventSection} while it is being
+ * iterated. A heap holds the current line of each track, so merging n lines from k tracks takes O(n log k) time and O(k) memory.
+ * Lines with equal start times keep the order of their tracks; lines without a start time sort first.
+ * It can be iterated as often as every track can.
+ */
+public final class MergedEvent implements EventSection {
+
+    private final List<EventSection> tracks;
+
+    private MergedEvent(List<EventSection> tracks) {
+        this.tracks = tracks;
+    }
+
+    public static MergedEvent of(EventSection... tracks) {
+        return new MergedEvent(List.of(tracks));
+    }
+
+    public static MergedEvent of(List<? extends EventSection> tracks) {
+        return new MergedEvent(List.copyOf(tracks));
+    }
+
+    @Override
+    public Iterator<Dialogue> iterator() {
+        var heads = new PriorityQueue<Head>(Math.max(1, tracks.size()));
+        for (int i = 0; i < tracks.size(); i++) {
+            var head = new Head(tracks.get(i).iterator(), i);
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Dialogue next() {
+                var head = heads.poll();
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+                var result = head.current;
+                if (head.advance()) {
+                    heads.add(head);
+                }
+                return result;
+            }
+        };
+    }
+
+    private static final class Head implements Comparable<Head> {
+
+        private final Iterator<Dialogue> iterator;
+
+        private final int track;
+
+        private Dialogue current;
+
+        private int start;
+
+        Head(Iterator<Dialogue> iterator, int track) {
+            this.iterator = iterator;
+            this.track = track;
+        }
+
+        boolean advance() {
+            if (!iterator.hasNext()) {
+                current = null;
+                return false;
+            }
+            current = iterator.next();
+            start = current == null || current.getStart() == null ? -1 : Timestamps.toCentis(current.getStart());
+            return true;
+        }
+
+        @Override
+        public int compareTo(Head other) {
+            return start != other.start ? Integer.compare(start, other.start) : Integer.compare(track, other.track);
+        }
+    }
+}
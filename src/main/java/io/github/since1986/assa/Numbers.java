@@ -0,0 +1,49 @@
+package io.github.since1986.assa;
+
+/**
+ * Decimal encoding of ints into a char buffer without going through {@link String}.
+ */
+final class Numbers {
+
+    /**
+     * Enough room for any int, including the sign.
+     */
+    static final int MAX_INT_LENGTH = 11;
+
+    private Numbers() {
+    }
+
+    static int encode(int value, char[] buffer, int pos) {
+        if (value < 0) {
+            if (value == Integer.MIN_VALUE) {
+                var text = Integer.toString(value);
+                text.getChars(0, text.length(), buffer, pos);
+                return pos + text.length();
+            }
+            buffer[pos++] = '-';
+            value = -value;
+        }
+        int end = pos + digitCount(value);
+        int i = end;
+        do {
+            buffer[--i] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        return end;
+    }
+
+    static int encodeTwoDigits(int value, char[] buffer, int pos) {
+        buffer[pos] = (char) ('0' + value / 10);
+        buffer[pos + 1] = (char) ('0' + value % 10);
+        return pos + 2;
+    }
+
+    private static int digitCount(int value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,204 @@
+package io.github.since1986.assa;
+
+/**
+ * Builds an override block such as <code>{\pos(640,360)\c&amp;H0000FF&amp;\fad(200,200)}</code> without format strings.
+ * Colours are given as {@code 0xRRGGBB} and written in the BGR order ASSA expects; alpha is {@code 0x00} (opaque) to {@code 0xFF} (transparent).
+ * Reusable via {@link #clear()}. Not thread-safe.
+ */
+public final class OverrideTags {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final StringBuilder tags = new StringBuilder(64);
+
+    public OverrideTags pos(int x, int y) {
+        return tag("pos").open().number(x).comma().number(y).close();
+    }
+
+    public OverrideTags move(int x1, int y1, int x2, int y2) {
+        return tag("move").open().number(x1).comma().number(y1).comma().number(x2).comma().number(y2).close();
+    }
+
+    public OverrideTags move(int x1, int y1, int x2, int y2, int t1, int t2) {
+        return tag("move").open().number(x1).comma().number(y1).comma().number(x2).comma().number(y2).comma().number(t1).comma().number(t2).close();
+    }
+
+    /**
+     * {@code \fad(fadeIn,fadeOut)}, in milliseconds.
+     */
+    public OverrideTags fad(int fadeIn, int fadeOut) {
+        return tag("fad").open().number(fadeIn).comma().number(fadeOut).close();
+    }
+
+    /**
+     * {@code \c}, the primary fill colour.
+     */
+    public OverrideTags colour(int rgb) {
+        return colour(1, rgb);
+    }
+
+    /**
+     * {@code \1c} to {@code \4c}: primary, secondary, outline and shadow colour.
+     */
+    public OverrideTags colour(int index, int rgb) {
+        checkIndex(index);
+        tags.append('\\');
+        if (index == 1) {
+            tags.append('c');
+        } else {
+            tags.append(index).append('c');
+        }
+        tags.append("&H");
+        hex(rgb & 0xFF);
+        hex(rgb >> 8 & 0xFF);
+        hex(rgb >> 16 & 0xFF);
+        tags.append('&');
+        return this;
+    }
+
+    /**
+     * {@code \alpha}, for all four colours.
+     */
+    public OverrideTags alpha(int alpha) {
+        tag("alpha");
+        tags.append("&H");
+        hex(alpha & 0xFF);
+        tags.append('&');
+        return this;
+    }
+
+    /**
+     * {@code \1a} to {@code \4a}.
+     */
+    public OverrideTags alpha(int index, int alpha) {
+        checkIndex(index);
+        tags.append('\\').append(index).append("a&H");
+        hex(alpha & 0xFF);
+        tags.append('&');
+        return this;
+    }
+
+    public OverrideTags fontSize(int size) {
+        return tag("fs").number(size);
+    }
+
+    public OverrideTags fontName(String name) {
+        tag("fn");
+        tags.append(name);
+        return this;
+    }
+
+    public OverrideTags bold(boolean bold) {
+        return tag("b").number(bold ? 1 : 0);
+    }
+
+    public OverrideTags italic(boolean italic) {
+        return tag("i").number(italic ? 1 : 0);
+    }
+
+    public OverrideTags underline(boolean underline) {
+        return tag("u").number(underline ? 1 : 0);
+    }
+
+    public OverrideTags strikeOut(boolean strikeOut) {
+        return tag("s").number(strikeOut ? 1 : 0);
+    }
+
+    public OverrideTags border(int width) {
+        return tag("bord").number(width);
+    }
+
+    public OverrideTags shadow(int depth) {
+        return tag("shad").number(depth);
+    }
+
+    public OverrideTags blur(int strength) {
+        return tag("blur").number(strength);
+    }
+
+    /**
+     * {@code \frz}, rotation around the z axis in degrees.
+     */
+    public OverrideTags rotate(int degrees) {
+        return tag("frz").number(degrees);
+    }
+
+    public OverrideTags alignment(Style.Alignment alignment) {
+        return tag("an").number(alignment.intValue());
+    }
+
+    /**
+     * {@code \r}, back to the line's style, or to {@code style} if given.
+     */
+    public OverrideTags reset(String style) {
+        tag("r");
+        tags.append(style == null ? "" : style);
+        return this;
+    }
+
+    /**
+     * Any other tag, without the leading backslash, eg. {@code "fscx120"}.
+     */
+    public OverrideTags raw(String tag) {
+        return tag(tag);
+    }
+
+    public boolean isEmpty() {
+        return tags.length() == 0;
+    }
+
+    public OverrideTags clear() {
+        tags.setLength(0);
+        return this;
+    }
+
+    /**
+     * Appends the block in braces; nothing if no tag was added.
+     */
+    public StringBuilder appendTo(StringBuilder target) {
+        if (!isEmpty()) {
+            target.append('{').append(tags).append('}');
+        }
+        return target;
+    }
+
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(tags.length() + 2)).toString();
+    }
+
+    private OverrideTags tag(String name) {
+        tags.append('\\').append(name);
+        return this;
+    }
+
+    private OverrideTags open() {
+        tags.append('(');
+        return this;
+    }
+
+    private OverrideTags close() {
+        tags.append(')');
+        return this;
+    }
+
+    private OverrideTags comma() {
+        tags.append(',');
+        return this;
+    }
+
+    private OverrideTags number(int value) {
+        tags.append(value);
+        return this;
+    }
+
+    private void hex(int value) {
+        tags.append(HEX[value >> 4]).append(HEX[value & 0x0F]);
+    }
+
+    private static void checkIndex(int index) {
+        if (index < 1 || index > 4) {
+            throw new IllegalArgumentException("Colour index must be 1 to 4: " + index);
+        }
+    }
+}
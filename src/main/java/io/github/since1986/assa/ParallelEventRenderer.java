@@ -0,0 +1,136 @@
+package io.github.since1986.assa;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Formats the lines of an {@link EventSection} in chunks on an {@link Executor} and writes the chunks back in order.
+ * At most a few chunks per worker are in flight, so memory is bounded by the chunk size, not by the track length.
+ */
+final class ParallelEventRenderer {
+
+    static final int DEFAULT_CHUNK_SIZE = 4096;
+
+    private final Executor executor;
+
+    private final int chunkSize;
+
+    private final int window;
+
+    private final Deque<CompletableFuture<StringBuilder>> pending = new ArrayDeque<>();
+
+    private boolean first = true;
+
+    ParallelEventRenderer(Executor executor, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        int parallelism = executor instanceof ForkJoinPool pool ? pool.getParallelism() : Runtime.getRuntime().availableProcessors();
+        this.window = Math.max(2, parallelism * 2);
+    }
+
+    /**
+     * Writes the lines separated by {@code '\n'}, without a trailing line break, exactly as {@link EventSection#writeLines(AssWriter)} does, and
+     * returns the number of lines.
+     */
+    long writeLines(EventSection event, Appendable out) throws IOException {
+        long lines = 0;
+        if (event instanceof DialogueTable table) {
+            lines = table.size();
+            for (int from = 0; from < table.size(); from += chunkSize) {
+                int start = from;
+                int end = Math.min(from + chunkSize, table.size());
+                submit(() -> render(table, start, end), out);
+            }
+        } else if (event instanceof Event e && e.items() != null) {
+            var items = e.items();
+            lines = items.length;
+            for (int from = 0; from < items.length; from += chunkSize) {
+                int start = from;
+                int end = Math.min(from + chunkSize, items.length);
+                submit(() -> render(items, start, end), out);
+            }
+        } else {
+            var iterator = event.iterator();
+            while (iterator.hasNext()) {
+                var chunk = new Dialogue[chunkSize];
+                int count = 0;
+                while (count < chunkSize && iterator.hasNext()) {
+                    chunk[count++] = iterator.next();
+                }
+                lines += count;
+                var items = count == chunkSize ? chunk : Arrays.copyOf(chunk, count);
+                submit(() -> render(items, 0, items.length), out);
+            }
+        }
+        while (!pending.isEmpty()) {
+            drain(out);
+        }
+        return lines;
+    }
+
+    private void submit(Supplier<StringBuilder> task, Appendable out) throws IOException {
+        pending.addLast(CompletableFuture.supplyAsync(task, executor));
+        if (pending.size() >= window) {
+            drain(out);
+        }
+    }
+
+    private void drain(Appendable out) throws IOException {
+        StringBuilder chunk;
+        try {
+            chunk = pending.removeFirst().join();
+        } catch (CompletionException e) {
+            pending.forEach(future -> future.cancel(false));
+            pending.clear();
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+        if (!first) {
+            out.append('\n');
+        }
+        first = false;
+        out.append(chunk);
+    }
+
+    private static StringBuilder render(Dialogue[] items, int from, int to) {
+        var encoder = new DialogueEncoder();
+        var builder = new StringBuilder((to - from) * 96);
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                builder.append('\n');
+            }
+            if (items[i] == null) {
+                builder.append("null");
+            } else {
+                encoder.encode(items[i]);
+                builder.append(encoder.buffer(), 0, encoder.length());
+            }
+        }
+        return builder;
+    }
+
+    private static StringBuilder render(DialogueTable table, int from, int to) {
+        var encoder = new DialogueEncoder();
+        var builder = new StringBuilder((to - from) * 96);
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                builder.append('\n');
+            }
+            table.encode(encoder, i);
+            builder.append(encoder.buffer(), 0, encoder.length());
+        }
+        return builder;
+    }
+}
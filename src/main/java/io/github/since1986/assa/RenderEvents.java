@@ -0,0 +1,90 @@
+package io.github.since1986.assa;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+
+/**
+ * JDK Flight Recorder events emitted by {@link AssWriter}. Both are disabled unless a recording enables them, eg.
+ * {@code -XX:StartFlightRecording:settings=profile} with {@code io.github.since1986.assa.*#enabled=true}.
+ * Whether they are enabled is cached and updated whenever a recording changes state. On runtimes without the {@code jdk.jfr} module they are
+ * never enabled, and the event classes are never loaded.
+ */
+final class RenderEvents {
+
+    private static volatile boolean enabled;
+
+    static {
+        try {
+            Listener.register();
+        } catch (LinkageError e) {
+            enabled = false;
+        }
+    }
+
+    private RenderEvents() {
+    }
+
+    /**
+     * Whether a recording has either event enabled, so that {@link AssWriter} has to count what it writes and emit them.
+     */
+    static boolean enabled() {
+        return enabled;
+    }
+
+    private static void update() {
+        enabled = new Document().isEnabled() || new Section().isEnabled();
+    }
+
+    /**
+     * Kept apart so that a missing {@code jdk.jfr} only fails loading this class, inside the guard above.
+     */
+    private static final class Listener implements FlightRecorderListener {
+
+        static void register() {
+            FlightRecorder.addListener(new Listener());
+            update();
+        }
+
+        @Override
+        public void recordingStateChanged(Recording recording) {
+            update();
+        }
+    }
+
+    @Name("io.github.since1986.assa.RenderDocument")
+    @Label("Render ASSA Document")
+    @Category("ASSA")
+    static final class Document extends jdk.jfr.Event {
+
+        @Label("Dialogues")
+        long dialogues;
+
+        @Label("Bytes Written")
+        @Description("UTF-8 bytes, counted only if instrumentation was enabled when the writer was created")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("io.github.since1986.assa.RenderSection")
+    @Label("Render ASSA Section")
+    @Category("ASSA")
+    static final class Section extends jdk.jfr.Event {
+
+        @Label("Section")
+        String section;
+
+        @Label("Lines")
+        @Description("Dialogues, styles or attachments written")
+        long lines;
+
+        @Label("Bytes Written")
+        @DataAmount
+        long bytes;
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.since1986.assa;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free counters of what every {@link AssWriter} in the process has written, to be scraped into a metrics system.
+ * Disabled by default; writers created while disabled skip all counting, so the cost is one volatile read per writer.
+ */
+public final class RenderMetrics {
+
+    private static final RenderMetrics GLOBAL = new RenderMetrics();
+
+    private final LongAdder documents = new LongAdder();
+
+    private final LongAdder dialogues = new LongAdder();
+
+    private final LongAdder bytes = new LongAdder();
+
+    private final LongAdder nanos = new LongAdder();
+
+    private volatile boolean enabled;
+
+    private RenderMetrics() {
+    }
+
+    public static RenderMetrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Counts the output of writers created from now on.
+     */
+    public void enable() {
+        enabled = true;
+    }
+
+    public void disable() {
+        enabled = false;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(documents.sum(), dialogues.sum(), bytes.sum(), nanos.sum());
+    }
+
+    public void reset() {
+        documents.reset();
+        dialogues.reset();
+        bytes.reset();
+        nanos.reset();
+    }
+
+    void recordDocument() {
+        documents.increment();
+    }
+
+    void recordSection(long dialogues, long bytes, long nanos) {
+        this.dialogues.add(dialogues);
+        this.bytes.add(bytes);
+        this.nanos.add(nanos);
+    }
+
+    /**
+     * Totals since the last {@link #reset()}. The counters are summed one after another, so a snapshot taken while writing may be slightly skewed.
+     *
+     * @param bytes UTF-8 bytes written
+     * @param nanos time spent writing sections, summed over all threads
+     */
+    public record Snapshot(long documents, long dialogues, long bytes, long nanos) {
+
+        public double dialoguesPerSecond() {
+            return perSecond(dialogues);
+        }
+
+        public double bytesPerSecond() {
+            return perSecond(bytes);
+        }
+
+        private double perSecond(long count) {
+            return nanos == 0 ? 0 : count * 1e9 / nanos;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.since1986.assa;
+
+import java.util.Iterator;
+import java.util.stream.IntStream;
+
+/**
+ * Applies a {@link TimeMap} to whole tracks in one pass, on centisecond values. The {@code retime} methods return a new section and leave their
+ * argument alone; {@link #retimeInPlace} rewrites the time columns of a table instead.
+ * A time mapped past {@link Timestamps#MAX_CENTIS}, which a {@link Dialogue} cannot hold, is rejected with an {@link IllegalArgumentException}
+ * naming the line; a table is then left unchanged.
+ */
+public final class Retimer {
+
+    /**
+     * Below this many lines the parallel stream overhead outweighs the work.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private Retimer() {
+    }
+
+    /**
+     * Returns a retimed copy of {@code table}, made with array copies.
+     */
+    public static DialogueTable retime(DialogueTable table, TimeMap map) {
+        var copy = table.copy();
+        retimeInPlace(copy, map);
+        return copy;
+    }
+
+    /**
+     * Rewrites the time columns of {@code table}; no per-line objects are created. Large tables are processed in parallel. The new times are all
+     * computed before any is written, so a rejected time leaves the table as it was.
+     */
+    public static void retimeInPlace(DialogueTable table, TimeMap map) {
+        int size = table.size();
+        var start = new int[size];
+        var end = new int[size];
+        var range = IntStream.range(0, size);
+        (size >= PARALLEL_THRESHOLD ? range.parallel() : range).forEach(i -> {
+            start[i] = retime(i, table.startCentis(i), map);
+            end[i] = retime(i, table.endCentis(i), map);
+        });
+        for (int i = 0; i < size; i++) {
+            table.setTimes(i, start[i], end[i]);
+        }
+    }
+
+    /**
+     * Returns a new event with every dialogue retimed; large events are processed in parallel.
+     */
+    public static Event retime(Event event, TimeMap map) {
+        if (event.items() == null) {
+            return event;
+        }
+        var items = event.items();
+        var range = IntStream.range(0, items.length);
+        return new Event((items.length >= PARALLEL_THRESHOLD ? range.parallel() : range)
+                .mapToObj(i -> retime(i, items[i], map))
+                .toArray(Dialogue[]::new));
+    }
+
+    /**
+     * Tables and events are handled as by the overloads above; any other section, eg. dialogues streamed from an {@link AssReader} straight into an
+     * {@link AssWriter}, is retimed lazily while it is iterated.
+     */
+    public static EventSection retime(EventSection event, TimeMap map) {
+        if (event instanceof DialogueTable table) {
+            return retime(table, map);
+        }
+        if (event instanceof Event e) {
+            return retime(e, map);
+        }
+        return () -> {
+            var iterator = event.iterator();
+            return new Iterator<>() {
+                private int line;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Dialogue next() {
+                    return retime(line++, iterator.next(), map);
+                }
+            };
+        };
+    }
+
+    public static Dialogue retime(Dialogue dialogue, TimeMap map) {
+        return retime(-1, dialogue, map);
+    }
+
+    private static Dialogue retime(int line, Dialogue dialogue, TimeMap map) {
+        if (dialogue == null || (dialogue.getStart() == null && dialogue.getEnd() == null)) {
+            return dialogue;
+        }
+        var builder = dialogue.toBuilder();
+        if (dialogue.getStart() != null) {
+            builder.start(Timestamps.ofCentis(retime(line, Timestamps.toCentis(dialogue.getStart()), map)));
+        }
+        if (dialogue.getEnd() != null) {
+            builder.end(Timestamps.ofCentis(retime(line, Timestamps.toCentis(dialogue.getEnd()), map)));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Maps one time of line {@code line} ({@code -1} if unknown); a negative time means no time and is kept.
+     */
+    private static int retime(int line, int centis, TimeMap map) {
+        if (centis < 0) {
+            return centis;
+        }
+        int result = map.apply(centis);
+        if (result > Timestamps.MAX_CENTIS) {
+            throw new IllegalArgumentException("%s%s is retimed to %s, past %s".formatted(
+                    line < 0 ? "" : "Line " + line + ": ",
+                    Timestamps.format(centis),
+                    Timestamps.format(result),
+                    Timestamps.format(Timestamps.MAX_CENTIS)
+            ));
+        }
+        return result;
+    }
+}
@@ -1,6 +1,8 @@
 package io.github.since1986.assa;
 
+import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.Getter;
 
 import java.text.DecimalFormat;
 import java.util.List;
@@ -38,6 +40,7 @@ public final class ScriptInfo {
     /**
      * (optional) Description of where in the video the script should begin playback. This entry does not appear if no information was entered by the author.
      */
+    @Getter
     private String synchPoint;
 
     /**
@@ -86,6 +89,7 @@ public final class ScriptInfo {
      * The stretching or compressing only occurs during script playback - this value does not change the actual timings for each event listed in the script.
      * Check the SSA user guide if you want to know why "Timer Speed" is more powerful than "Ramp Time", even though they both achieve the same result.
      */
+    @Getter
     private Float timer;
 
     /**
@@ -98,8 +102,18 @@ public final class ScriptInfo {
     @Builder.Default
     private WrapStyle wrapStyle = WrapStyle.SMART;
 
+    /**
+     * The rendered section, computed on first use. Instances are immutable, so a header shared by many documents is rendered only once.
+     */
+    @Getter(value = AccessLevel.PRIVATE, lazy = true)
+    private final String rendered = render();
+
     @Override
     public String toString() {
+        return getRendered();
+    }
+
+    private String render() {
         var fields = List.of(
                 new NamedField<>("Title", title, "This is a description of the script. If the original author(s) did not provide this information then <untitled> is automatically substituted."),
                 new NamedField<>("OriginalScript", originalScript, "The original author(s) of the script. If the original author(s) did not provide this information then <unknown> is automatically substituted."),
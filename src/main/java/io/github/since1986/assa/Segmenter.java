@@ -0,0 +1,141 @@
+package io.github.since1986.assa;
+
+import lombok.Builder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Cuts a time-sorted track into fixed-duration segments aligned with video segments, eg. for HLS or DASH. Segment {@code k} covers
+ * {@code [k * segmentCentis, (k + 1) * segmentCentis)}; every segment is emitted, empty or not, as a document sharing the same
+ * {@link ScriptInfo} and {@link StyleSection}. A line that spans a boundary is repeated in each segment it overlaps, with its times clipped to the
+ * segment unless {@code clip} is off. Lines are taken one at a time by a {@link Session}, which holds only the lines still showing, so a segment
+ * costs time proportional to its own lines.
+ */
+@Builder
+public final class Segmenter {
+
+    private final ScriptInfo scriptInfo;
+
+    private final StyleSection style;
+
+    @Builder.Default
+    private int segmentCentis = 600;
+
+    @Builder.Default
+    private boolean clip = true;
+
+    /**
+     * Starts segmenting; each segment is passed to {@code consumer} as soon as a line starts after it, or on {@link Session#finish()}.
+     */
+    public Session open(Consumer<Segment> consumer) {
+        if (segmentCentis <= 0) {
+            throw new IllegalArgumentException("segmentCentis must be positive: " + segmentCentis);
+        }
+        return new Session(consumer);
+    }
+
+    public List<Segment> segment(EventSection event) {
+        var segments = new ArrayList<Segment>();
+        var session = open(segments::add);
+        for (var dialogue : event) {
+            session.accept(dialogue);
+        }
+        session.finish();
+        return segments;
+    }
+
+    public final class Session implements Consumer<Dialogue> {
+
+        private final Consumer<Segment> consumer;
+
+        /**
+         * Lines that have started and not yet ended by the start of the current segment.
+         */
+        private final List<Dialogue> active = new ArrayList<>();
+
+        private int index;
+
+        private int lastStart;
+
+        private boolean finished;
+
+        private Session(Consumer<Segment> consumer) {
+            this.consumer = consumer;
+        }
+
+        /**
+         * Adds the next line. Lines must come in order of start time; lines without start or end, or ending at or before their start, never show
+         * and are dropped.
+         */
+        @Override
+        public void accept(Dialogue dialogue) {
+            if (finished) {
+                throw new IllegalStateException("Session is finished");
+            }
+            if (dialogue == null || dialogue.getStart() == null || dialogue.getEnd() == null) {
+                return;
+            }
+            int start = Timestamps.toCentis(dialogue.getStart());
+            if (start < lastStart) {
+                throw new IllegalArgumentException("Lines must be sorted by start: %s after %s".formatted(Timestamps.format(start), Timestamps.format(lastStart)));
+            }
+            lastStart = start;
+            while (start >= segmentEnd()) {
+                emit();
+            }
+            if (Timestamps.toCentis(dialogue.getEnd()) > start) {
+                active.add(dialogue);
+            }
+        }
+
+        /**
+         * Emits the current segment and any following ones until every line has ended.
+         */
+        public void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            do {
+                emit();
+            } while (!active.isEmpty());
+        }
+
+        private int segmentEnd() {
+            return (index + 1) * segmentCentis;
+        }
+
+        private void emit() {
+            int from = index * segmentCentis;
+            int to = segmentEnd();
+            var items = new Dialogue[active.size()];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = clip ? clipped(active.get(i), from, to) : active.get(i);
+            }
+            active.removeIf(dialogue -> Timestamps.toCentis(dialogue.getEnd()) <= to);
+            consumer.accept(new Segment(index++, from, to, new AdvancedSubStationAlpha(scriptInfo, style, new Event(items))));
+        }
+
+        private static Dialogue clipped(Dialogue dialogue, int from, int to) {
+            int start = Timestamps.toCentis(dialogue.getStart());
+            int end = Timestamps.toCentis(dialogue.getEnd());
+            if (start >= from && end <= to) {
+                return dialogue;
+            }
+            return dialogue.toBuilder()
+                    .start(Timestamps.ofCentis(Math.max(start, from)))
+                    .end(Timestamps.ofCentis(Math.min(end, to)))
+                    .build();
+        }
+    }
+
+    /**
+     * @param index       the position of the segment, from {@code 0}
+     * @param startCentis where the segment starts, inclusive
+     * @param endCentis   where the segment ends, exclusive
+     */
+    public record Segment(int index, int startCentis, int endCentis, AdvancedSubStationAlpha document) {
+    }
+}
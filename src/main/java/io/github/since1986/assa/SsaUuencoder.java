@@ -0,0 +1,131 @@
+package io.github.since1986.assa;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * The SSA variant of uuencode used by {@code [Fonts]} and {@code [Graphics]}: every 3 bytes become 4 chars, each a 6-bit value plus 33, written in
+ * lines of 80 chars. A final group of 1 or 2 bytes becomes 2 or 3 chars. Bytes are encoded in chunks straight into a char buffer that is handed to
+ * the output, so no intermediate Strings are built. Not thread-safe.
+ */
+public final class SsaUuencoder {
+
+    static final int LINE_LENGTH = 80;
+
+    private static final char[] TABLE = new char[64];
+
+    static {
+        for (int i = 0; i < TABLE.length; i++) {
+            TABLE[i] = (char) (i + 33);
+        }
+    }
+
+    private final Appendable out;
+
+    private final char[] chars = new char[(LINE_LENGTH + 1) * 64];
+
+    private int charCount;
+
+    private int lineLength;
+
+    private final byte[] pending = new byte[2];
+
+    private int pendingCount;
+
+    public SsaUuencoder(Appendable out) {
+        this.out = out;
+    }
+
+    /**
+     * Encodes everything {@code channel} yields, until its end, and {@link #finish() finishes} the data.
+     */
+    public static void encode(ReadableByteChannel channel, Appendable out) throws IOException {
+        var encoder = new SsaUuencoder(out);
+        var buffer = ByteBuffer.allocateDirect(60 * 1024);
+        while (channel.read(buffer) >= 0) {
+            buffer.flip();
+            encoder.update(buffer);
+            buffer.clear();
+        }
+        encoder.finish();
+    }
+
+    /**
+     * Encodes the remaining bytes of {@code data} without changing its position, and {@link #finish() finishes} the data.
+     */
+    public static void encode(ByteBuffer data, Appendable out) throws IOException {
+        var encoder = new SsaUuencoder(out);
+        encoder.update(data.duplicate());
+        encoder.finish();
+    }
+
+    /**
+     * Encodes the remaining bytes of {@code data}, consuming them. Up to 2 trailing bytes are held back until more data or {@link #finish()}.
+     */
+    public void update(ByteBuffer data) throws IOException {
+        while (pendingCount > 0 && pendingCount < 3 && data.hasRemaining()) {
+            if (pendingCount == 2) {
+                encodeGroup(pending[0], pending[1], data.get());
+                pendingCount = 0;
+            } else {
+                pending[pendingCount++] = data.get();
+            }
+        }
+        while (data.remaining() >= 3) {
+            encodeGroup(data.get(), data.get(), data.get());
+        }
+        while (data.hasRemaining()) {
+            pending[pendingCount++] = data.get();
+        }
+    }
+
+    /**
+     * Encodes the held back bytes and ends the last line with {@code '\n'}.
+     */
+    public void finish() throws IOException {
+        if (pendingCount == 1) {
+            int b0 = pending[0] & 0xFF;
+            put(TABLE[b0 >>> 2]);
+            put(TABLE[(b0 & 0x03) << 4]);
+        } else if (pendingCount == 2) {
+            int b0 = pending[0] & 0xFF;
+            int b1 = pending[1] & 0xFF;
+            put(TABLE[b0 >>> 2]);
+            put(TABLE[(b0 & 0x03) << 4 | b1 >>> 4]);
+            put(TABLE[(b1 & 0x0F) << 2]);
+        }
+        pendingCount = 0;
+        if (lineLength > 0) {
+            chars[charCount++] = '\n';
+            lineLength = 0;
+        }
+        flush();
+    }
+
+    private void encodeGroup(byte first, byte second, byte third) throws IOException {
+        int b0 = first & 0xFF;
+        int b1 = second & 0xFF;
+        int b2 = third & 0xFF;
+        put(TABLE[b0 >>> 2]);
+        put(TABLE[(b0 & 0x03) << 4 | b1 >>> 4]);
+        put(TABLE[(b1 & 0x0F) << 2 | b2 >>> 6]);
+        put(TABLE[b2 & 0x3F]);
+    }
+
+    private void put(char c) throws IOException {
+        chars[charCount++] = c;
+        if (++lineLength == LINE_LENGTH) {
+            chars[charCount++] = '\n';
+            lineLength = 0;
+            if (charCount > chars.length - LINE_LENGTH - 1) {
+                flush();
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        AssWriter.write(out, chars, 0, charCount);
+        charCount = 0;
+    }
+}
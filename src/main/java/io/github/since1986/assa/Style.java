@@ -1,17 +1,21 @@
 package io.github.since1986.assa;
 
+import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.Getter;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Builder
-public final class Style {
+public final class Style implements StyleSection {
 
     /**
      * The name of the Style. Case sensitive. Cannot include commas.
      */
+    @Getter
     @Builder.Default
     private String name = "Default";
 
@@ -162,9 +166,36 @@ public final class Style {
     @Builder.Default
     private Integer encoding = 1;
 
+    /**
+     * The field names of the Format line, eg. {@code Name,Fontname,Fontsize}, computed on first use.
+     */
+    @Getter(value = AccessLevel.PACKAGE, lazy = true)
+    private final String format = fields().stream().map(NamedField::name).collect(Collectors.joining(","));
+
+    /**
+     * The field values of the Style line, in the order of {@link #getFormat()}, computed on first use.
+     */
+    @Getter(value = AccessLevel.PACKAGE, lazy = true)
+    private final String values = fields().stream().map(item -> String.valueOf(item.value())).collect(Collectors.joining(","));
+
+    /**
+     * The rendered section, computed on first use. Instances are immutable, so a header shared by many documents is rendered only once.
+     */
+    @Getter(value = AccessLevel.PRIVATE, lazy = true)
+    private final String rendered = Styles.render(List.of(this));
+
+    @Override
+    public List<Style> styles() {
+        return List.of(this);
+    }
+
     @Override
     public String toString() {
-        var collected = Stream.of(
+        return getRendered();
+    }
+
+    private List<NamedField<?>> fields() {
+        return Stream.<NamedField<?>>of(
                 new NamedField<>("Name", name),
                 new NamedField<>("Fontname", fontname),
                 new NamedField<>("Fontsize", fontsize),
@@ -188,16 +219,7 @@ public final class Style {
                 new NamedField<>("MarginR", marginR),
                 new NamedField<>("MarginV", marginV),
                 new NamedField<>("Encoding", encoding)
-        ).filter(item -> !item.toString().isEmpty()).toList();
-
-        var namesJoin = collected.stream().map(NamedField::name).collect(Collectors.joining(","));
-        var valuesJoin = collected.stream().map(item -> String.valueOf(item.value())).collect(Collectors.joining(","));
-
-        return """
-                [V4+ Styles]
-                Format: %s
-                Style: %s
-                """.formatted(namesJoin, valuesJoin);
+        ).filter(item -> !item.toString().isEmpty()).collect(Collectors.toList());
     }
 
     public enum BorderStyle implements IntValueBased {
@@ -0,0 +1,11 @@
+package io.github.since1986.assa;
+
+import java.util.List;
+
+/**
+ * The styles of a {@code [V4+ Styles]} section: a single {@link Style}, or a {@link Styles} registry of many.
+ */
+public interface StyleSection {
+
+    List<Style> styles();
+}
@@ -0,0 +1,157 @@
+package io.github.since1986.assa;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@code [V4+ Styles]} section holding many styles under one shared Format line, eg. separate styles for speakers, signs and karaoke.
+ * Styles are looked up by name in O(1); {@link #handle(String)} checks a name once, up front, so dialogues can refer to it safely.
+ */
+public final class Styles implements StyleSection {
+
+    private final List<Style> styles;
+
+    private final Map<String, Handle> handles;
+
+    @Getter(value = AccessLevel.PRIVATE, lazy = true)
+    private final String rendered = render(styles);
+
+    private Styles(List<Style> styles) {
+        if (styles.isEmpty()) {
+            throw new IllegalArgumentException("At least one style is required");
+        }
+        var format = styles.get(0).getFormat();
+        var handles = new HashMap<String, Handle>();
+        for (var style : styles) {
+            if (!style.getFormat().equals(format)) {
+                throw new IllegalArgumentException("Style %s has Format %s, expected the shared Format %s".formatted(style.getName(), style.getFormat(), format));
+            }
+            if (handles.putIfAbsent(style.getName(), new Handle(this, handles.size(), style.getName())) != null) {
+                throw new IllegalArgumentException("Duplicate style name: " + style.getName());
+            }
+        }
+        this.styles = List.copyOf(styles);
+        this.handles = handles;
+    }
+
+    public static Styles of(Style... styles) {
+        return new Styles(List.of(styles));
+    }
+
+    public static Styles of(Collection<Style> styles) {
+        return new Styles(new ArrayList<>(styles));
+    }
+
+    @Override
+    public List<Style> styles() {
+        return styles;
+    }
+
+    /**
+     * Returns the handle of a registered style, or throws {@link IllegalArgumentException} if there is none by that name.
+     */
+    public Handle handle(String name) {
+        var handle = handles.get(name);
+        if (handle == null) {
+            throw new IllegalArgumentException("Unknown style: " + name);
+        }
+        return handle;
+    }
+
+    public Style get(Handle handle) {
+        if (handle.registry != this) {
+            throw new IllegalArgumentException("Style %s is not a handle of this registry".formatted(handle.name));
+        }
+        return styles.get(handle.index);
+    }
+
+    public boolean contains(String name) {
+        return handles.containsKey(name) || isDefault(name);
+    }
+
+    /**
+     * Finds, in one pass over {@code event}, every style name not in this registry, with the index of the first dialogue using it.
+     * {@code Default} and {@code *Default} always resolve, to the renderer's own default style.
+     */
+    public Map<String, Integer> unknownStyles(EventSection event) {
+        var unknown = new LinkedHashMap<String, Integer>();
+        if (event instanceof DialogueTable table) {
+            for (int i = 0; i < table.size(); i++) {
+                check(table.style(i), i, unknown);
+            }
+        } else {
+            int i = 0;
+            for (var dialogue : event) {
+                check(dialogue.getStyle(), i++, unknown);
+            }
+        }
+        return unknown;
+    }
+
+    @Override
+    public String toString() {
+        return getRendered();
+    }
+
+    static String render(List<Style> styles) {
+        var builder = new StringBuilder("[V4+ Styles]\nFormat: ").append(styles.get(0).getFormat()).append('\n');
+        for (var style : styles) {
+            builder.append("Style: ").append(style.getValues()).append('\n');
+        }
+        return builder.toString();
+    }
+
+    private void check(String name, int index, Map<String, Integer> unknown) {
+        if (!contains(name)) {
+            unknown.putIfAbsent(name, index);
+        }
+    }
+
+    static boolean isDefault(String name) {
+        return "Default".equals(name) || "*Default".equals(name);
+    }
+
+    /**
+     * A style name checked against a {@link Styles} registry, which alone issues handles, so a handle always names one of its registry's styles.
+     * Append it to a {@link DialogueTable} created with the registry, where its index is the stored style id, or pass {@link #name()} to
+     * {@code Dialogue.builder().style(...)}.
+     */
+    public static final class Handle {
+
+        private final Styles registry;
+
+        private final int index;
+
+        private final String name;
+
+        private Handle(Styles registry, int index, String name) {
+            this.registry = registry;
+            this.index = index;
+            this.name = name;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        Styles registry() {
+            return registry;
+        }
+
+        @Override
+        public String toString() {
+            return "Handle[index=%d, name=%s]".formatted(index, name);
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package io.github.since1986.assa;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Streams dialogues as SRT or WebVTT cues, one line at a time like {@link AssWriter}.
+ * {@code \N} and {@code \n} become line breaks and {@code \h} a no-break space; {@code \i}, {@code \b} and <code>&#92;u</code> become {@code <i>}, {@code <b>}
+ * and {@code <u>}, all other override tags and drawings are dropped. Dialogues without start or end, or with no text left, are skipped.
+ * Cues are written in the order of the events. Not thread-safe.
+ */
+public final class SubtitleWriter implements Closeable, Flushable {
+
+    private static final char[] ARROW = " --> ".toCharArray();
+
+    private static final char NO_BREAK_SPACE = '\u00A0';
+
+    /**
+     * Tags that are mapped, in the order they are reopened.
+     */
+    private static final char[] STYLE_TAGS = {'b', 'i', 'u'};
+
+    private final Appendable out;
+
+    private final Format format;
+
+    private char[] buffer = new char[256];
+
+    private int length;
+
+    private final char[] open = new char[STYLE_TAGS.length];
+
+    private int openCount;
+
+    private int cues;
+
+    private boolean headerWritten;
+
+    public SubtitleWriter(Appendable out, Format format) {
+        this.out = out;
+        this.format = format;
+    }
+
+    public static SubtitleWriter of(Writer writer, Format format) {
+        return new SubtitleWriter(writer instanceof BufferedWriter ? writer : new BufferedWriter(writer), format);
+    }
+
+    public static SubtitleWriter of(OutputStream outputStream, Format format) {
+        return of(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), format);
+    }
+
+    /**
+     * Opens {@code path} like {@link AssWriter#of(Path, OpenOption...)}.
+     */
+    public static SubtitleWriter of(Path path, Format format, OpenOption... options) throws IOException {
+        return new SubtitleWriter(Utf8ChannelWriter.open(path, options), format);
+    }
+
+    /**
+     * Writes the ASSA document to {@code assWriter} and the events as cues to each of {@code writers}, iterating the events once.
+     * Every line goes through a {@link Dialogue} object, as cues are built from one, so a {@link DialogueTable} is not written from its columns here;
+     * write it with {@link AssWriter} and {@link #write(EventSection)} separately to keep that fast path.
+     */
+    public static void writeAll(AdvancedSubStationAlpha advancedSubStationAlpha, AssWriter assWriter, SubtitleWriter... writers) throws IOException {
+        for (var writer : writers) {
+            writer.writeHeader();
+        }
+        var event = advancedSubStationAlpha.event();
+        assWriter.write(new AdvancedSubStationAlpha(
+                advancedSubStationAlpha.scriptInfo(),
+                advancedSubStationAlpha.style(),
+                event == null ? null : new Tee(event, writers),
+                advancedSubStationAlpha.attachments()
+        ));
+    }
+
+    /**
+     * Writes the file header, if the format has one and it has not been written yet, followed by the cues.
+     */
+    public void write(EventSection event) throws IOException {
+        writeHeader();
+        for (var dialogue : event) {
+            writeCue(dialogue);
+        }
+    }
+
+    /**
+     * Writes {@code dialogue} as the next cue, after the header if it has not been written yet, and returns whether it had anything to show.
+     */
+    public boolean writeCue(Dialogue dialogue) throws IOException {
+        if (dialogue == null || dialogue.getStart() == null || dialogue.getEnd() == null) {
+            return false;
+        }
+        length = 0;
+        appendText(dialogue.getTex());
+        if (length == 0) {
+            return false;
+        }
+        int textLength = length;
+        writeHeader();
+        ensureCapacity(length + Numbers.MAX_INT_LENGTH + 2 * Timestamps.MAX_LENGTH + ARROW.length + 4);
+        char separator = format == Format.SRT ? ',' : '.';
+        if (format == Format.SRT) {
+            length = Numbers.encode(++cues, buffer, length);
+            buffer[length++] = '\n';
+        }
+        length = Timestamps.encodeMillis(Timestamps.toCentis(dialogue.getStart()), separator, buffer, length);
+        System.arraycopy(ARROW, 0, buffer, length, ARROW.length);
+        length += ARROW.length;
+        length = Timestamps.encodeMillis(Timestamps.toCentis(dialogue.getEnd()), separator, buffer, length);
+        buffer[length++] = '\n';
+        AssWriter.write(out, buffer, textLength, length - textLength);
+        AssWriter.write(out, buffer, 0, textLength);
+        out.append("\n\n");
+        return true;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (out instanceof Flushable flushable) {
+            flushable.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out instanceof Closeable closeable) {
+            closeable.close();
+        } else {
+            flush();
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        if (!headerWritten) {
+            headerWritten = true;
+            if (format == Format.WEBVTT) {
+                out.append("WEBVTT\n\n");
+            }
+        }
+    }
+
+    /**
+     * Appends the cue text for {@code tex} to {@link #buffer}, without a trailing line break.
+     */
+    private void appendText(CharSequence tex) {
+        openCount = 0;
+        if (tex == null) {
+            return;
+        }
+        boolean drawing = false;
+        int textLength = tex.length();
+        for (int i = 0; i < textLength; i++) {
+            char c = tex.charAt(i);
+            if (c == '{') {
+                int close = indexOf(tex, '}', i + 1);
+                if (close >= 0) {
+                    drawing = overrideBlock(tex, i + 1, close, drawing);
+                    i = close;
+                    continue;
+                }
+            }
+            if (drawing) {
+                continue;
+            }
+            if (c == '\\' && i + 1 < textLength) {
+                char next = tex.charAt(i + 1);
+                if (next == 'N' || next == 'n') {
+                    lineBreak();
+                    i++;
+                    continue;
+                }
+                if (next == 'h') {
+                    appendChar(NO_BREAK_SPACE);
+                    i++;
+                    continue;
+                }
+            }
+            if (c == '\n' || c == '\r') {
+                lineBreak();
+            } else if (format == Format.WEBVTT && c == '&') {
+                append("&amp;");
+            } else if (format == Format.WEBVTT && c == '<') {
+                append("&lt;");
+            } else if (format == Format.WEBVTT && c == '>') {
+                append("&gt;");
+            } else {
+                appendChar(c);
+            }
+        }
+        reset();
+        while (length > 0 && buffer[length - 1] == '\n') {
+            length--;
+        }
+        if (isBlank()) {
+            length = 0;
+        }
+    }
+
+    /**
+     * Applies the tags in {@code tex[from, to)} and returns whether the following text is a drawing.
+     */
+    private boolean overrideBlock(CharSequence tex, int from, int to, boolean drawing) {
+        int i = from;
+        while (i < to) {
+            if (tex.charAt(i) != '\\') {
+                i++;
+                continue;
+            }
+            int nameStart = ++i;
+            while (i < to && Character.isLetter(tex.charAt(i))) {
+                i++;
+            }
+            int nameEnd = i;
+            int value = 0;
+            boolean hasValue = false;
+            while (i < to && tex.charAt(i) != '\\') {
+                char c = tex.charAt(i);
+                if (c == '(') {
+                    int close = indexOf(tex, ')', i + 1);
+                    i = close < 0 || close > to ? to : close + 1;
+                    hasValue = false;
+                    break;
+                }
+                if (c >= '0' && c <= '9') {
+                    value = value * 10 + (c - '0');
+                    hasValue = true;
+                }
+                i++;
+            }
+            int nameLength = nameEnd - nameStart;
+            if (nameLength == 1) {
+                char name = tex.charAt(nameStart);
+                switch (name) {
+                    case 'b', 'i', 'u' -> setTag(name, hasValue && value != 0);
+                    case 'p' -> drawing = hasValue && value != 0;
+                    case 'r' -> reset();
+                    default -> {
+                    }
+                }
+            } else if (tex.charAt(nameStart) == 'r' && !isRandomTag(tex, nameStart, nameEnd)) {
+                // \r followed by a style name, eg. \rDefault
+                reset();
+            }
+        }
+        return drawing;
+    }
+
+    private void reset() {
+        while (openCount > 0) {
+            closeTag(open[--openCount]);
+        }
+    }
+
+    /**
+     * {@code \rnd}, {@code \rndx}, {@code \rndy} and {@code \rndz} are VSFilterMod tags, not resets.
+     */
+    private static boolean isRandomTag(CharSequence tex, int from, int to) {
+        return to - from >= 3 && tex.charAt(from + 1) == 'n' && tex.charAt(from + 2) == 'd' && (to - from == 3 || to - from == 4 && "xyz".indexOf(tex.charAt(from + 3)) >= 0);
+    }
+
+    private void setTag(char tag, boolean on) {
+        int index = -1;
+        for (int i = 0; i < openCount; i++) {
+            if (open[i] == tag) {
+                index = i;
+            }
+        }
+        if (on && index < 0) {
+            open[openCount++] = tag;
+            openTag(tag);
+        } else if (!on && index >= 0) {
+            // close the tags opened after this one too, and reopen them, so that tags stay nested
+            for (int i = openCount - 1; i >= index; i--) {
+                closeTag(open[i]);
+            }
+            System.arraycopy(open, index + 1, open, index, openCount - index - 1);
+            openCount--;
+            for (int i = index; i < openCount; i++) {
+                openTag(open[i]);
+            }
+        }
+    }
+
+    private void openTag(char tag) {
+        appendChar('<');
+        appendChar(tag);
+        appendChar('>');
+    }
+
+    private void closeTag(char tag) {
+        // drop an empty element rather than writing <i></i>
+        if (length >= 3 && buffer[length - 1] == '>' && buffer[length - 2] == tag && buffer[length - 3] == '<') {
+            length -= 3;
+            return;
+        }
+        append("</");
+        appendChar(tag);
+        appendChar('>');
+    }
+
+    /**
+     * A line break, unless it would start the cue or leave an empty line, which would end the cue.
+     */
+    private void lineBreak() {
+        if (length > 0 && buffer[length - 1] != '\n') {
+            appendChar('\n');
+        }
+    }
+
+    private boolean isBlank() {
+        for (int i = 0; i < length; i++) {
+            char c = buffer[i];
+            if (c != ' ' && c != '\n' && c != NO_BREAK_SPACE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void appendChar(char c) {
+        ensureCapacity(length + 1);
+        buffer[length++] = c;
+    }
+
+    private void append(String s) {
+        ensureCapacity(length + s.length());
+        s.getChars(0, s.length(), buffer, length);
+        length += s.length();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+        }
+    }
+
+    private static int indexOf(CharSequence text, char c, int from) {
+        for (int i = from; i < text.length(); i++) {
+            if (text.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public enum Format {
+        SRT,
+        WEBVTT
+    }
+
+    /**
+     * Passes each dialogue written to the ASSA output on to the other writers as well. The loop is {@link EventSection#writeLines(AssWriter)}'s,
+     * with the cues added.
+     */
+    private record Tee(EventSection event, SubtitleWriter[] writers) implements EventSection {
+
+        @Override
+        public Iterator<Dialogue> iterator() {
+            return event.iterator();
+        }
+
+        @Override
+        public void writeLines(AssWriter writer) throws IOException {
+            boolean first = true;
+            for (var dialogue : event) {
+                if (!first) {
+                    writer.out().append('\n');
+                }
+                first = false;
+                writer.writeDialogue(dialogue);
+                for (var subtitleWriter : writers) {
+                    subtitleWriter.writeCue(dialogue);
+                }
+            }
+        }
+    }
+}
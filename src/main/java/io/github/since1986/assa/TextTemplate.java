@@ -0,0 +1,153 @@
+package io.github.since1986.assa;
+
+import java.util.ArrayList;
+
+/**
+ * A dialogue text pattern compiled once into literal segments and {@code %s} slots ({@code %%} is a literal {@code %}), so per-line values are
+ * appended straight into a text buffer instead of re-parsing a format string for every line as {@link String#formatted(Object...)} does.
+ * The buffer can be passed as is to {@link DialogueTable#append(int, int, int, String, String, int, int, int, Dialogue.Effect, CharSequence)}.
+ * <pre>
+ * var template = TextTemplate.compile("%s测试条目-%s\\N另一行: %s");
+ * var line = template.line(buffer).arg(tags.clear().pos(x, y)).arg(i).arg(value);
+ * </pre>
+ */
+public final class TextTemplate {
+
+    private final String[] literals;
+
+    private TextTemplate(String[] literals) {
+        this.literals = literals;
+    }
+
+    public static TextTemplate compile(String pattern) {
+        var literals = new ArrayList<String>();
+        var literal = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c != '%') {
+                literal.append(c);
+                continue;
+            }
+            char next = i + 1 < pattern.length() ? pattern.charAt(i + 1) : 0;
+            if (next == '%') {
+                literal.append('%');
+            } else if (next == 's') {
+                literals.add(literal.toString());
+                literal.setLength(0);
+            } else {
+                throw new IllegalArgumentException("Only %%s and %%%% are supported, found '%%%s' at %d in: %s".formatted(next == 0 ? "" : String.valueOf(next), i, pattern));
+            }
+            i++;
+        }
+        literals.add(literal.toString());
+        return new TextTemplate(literals.toArray(String[]::new));
+    }
+
+    public int slots() {
+        return literals.length - 1;
+    }
+
+    /**
+     * Clears {@code target} and starts filling it; the returned cursor is valid until the next call.
+     */
+    public Line line(StringBuilder target) {
+        return new Line(target);
+    }
+
+    public StringBuilder appendTo(StringBuilder target, Object... values) {
+        if (values.length != slots()) {
+            throw new IllegalArgumentException("Expected %d values, got %d".formatted(slots(), values.length));
+        }
+        target.append(literals[0]);
+        for (int i = 0; i < values.length; i++) {
+            target.append(values[i]).append(literals[i + 1]);
+        }
+        return target;
+    }
+
+    public String format(Object... values) {
+        return appendTo(new StringBuilder(), values).toString();
+    }
+
+    /**
+     * Fills the slots in order. Primitive overloads append without boxing.
+     */
+    public final class Line {
+
+        private final StringBuilder target;
+
+        private int slot;
+
+        private Line(StringBuilder target) {
+            this.target = target;
+            target.setLength(0);
+            target.append(literals[0]);
+        }
+
+        public Line arg(int value) {
+            next();
+            target.append(value);
+            return literal();
+        }
+
+        public Line arg(long value) {
+            next();
+            target.append(value);
+            return literal();
+        }
+
+        public Line arg(double value) {
+            next();
+            target.append(value);
+            return literal();
+        }
+
+        public Line arg(CharSequence value) {
+            next();
+            target.append(value);
+            return literal();
+        }
+
+        public Line arg(OverrideTags value) {
+            next();
+            value.appendTo(target);
+            return literal();
+        }
+
+        public Line arg(Object value) {
+            next();
+            target.append(value);
+            return literal();
+        }
+
+        public boolean isComplete() {
+            return slot == slots();
+        }
+
+        /**
+         * The filled text; all slots must have been filled.
+         */
+        public StringBuilder text() {
+            if (!isComplete()) {
+                throw new IllegalStateException("%d of %d slots filled".formatted(slot, slots()));
+            }
+            return target;
+        }
+
+        @Override
+        public String toString() {
+            return text().toString();
+        }
+
+        private void next() {
+            if (slot == slots()) {
+                throw new IllegalStateException("All %d slots are already filled".formatted(slots()));
+            }
+        }
+
+        private Line literal() {
+            target.append(literals[++slot]);
+            return this;
+        }
+    }
+}
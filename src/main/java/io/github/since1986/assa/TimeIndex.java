@@ -0,0 +1,229 @@
+package io.github.since1986.assa;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable index answering "which dialogues are on screen at t, or between t1 and t2" without scanning the whole track.
+ * Intervals are kept sorted by start time in centisecond arrays, with a max-end tree over them: a query binary-searches the last candidate start,
+ * then walks only the subtrees whose latest end reaches the query, in O(log n + k) for k results on typical tracks.
+ * A dialogue is on screen over {@code [start, end)}; dialogues without start or end are never returned. Results are indices into the indexed
+ * {@link EventSection}, in start-time order.
+ */
+public final class TimeIndex {
+
+    private final int size;
+
+    private final int[] starts;
+
+    private final int[] ends;
+
+    private final int[] indices;
+
+    /**
+     * Max end per node of a complete binary tree over the sorted intervals; leaves start at {@link #leaves}.
+     */
+    private final int[] maxEnds;
+
+    private final int leaves;
+
+    private TimeIndex(int size, int[] starts, int[] ends, int[] indices) {
+        this.size = size;
+        this.starts = starts;
+        this.ends = ends;
+        this.indices = indices;
+        int leaves = 1;
+        while (leaves < starts.length) {
+            leaves <<= 1;
+        }
+        this.leaves = leaves;
+        this.maxEnds = new int[leaves * 2];
+        Arrays.fill(maxEnds, Integer.MIN_VALUE);
+        System.arraycopy(ends, 0, maxEnds, leaves, ends.length);
+        for (int node = leaves - 1; node > 0; node--) {
+            maxEnds[node] = Math.max(maxEnds[node * 2], maxEnds[node * 2 + 1]);
+        }
+    }
+
+    public static TimeIndex of(EventSection event) {
+        return new TimeIndex(0, new int[0], new int[0], new int[0]).append(event);
+    }
+
+    /**
+     * Returns a new index that also covers {@code more}, whose dialogues get the indices following the ones already indexed.
+     * Only the new intervals are sorted; they are then merged with the existing sorted arrays in linear time.
+     */
+    public TimeIndex append(EventSection more) {
+        var intervals = Intervals.of(more, size);
+        var added = intervals.sorted();
+        int count = starts.length + added.length;
+        var mergedStarts = new int[count];
+        var mergedEnds = new int[count];
+        var mergedIndices = new int[count];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < count; k++) {
+            boolean takeExisting = j >= added.length || (i < starts.length && starts[i] <= intervals.starts[added[j]]);
+            if (takeExisting) {
+                mergedStarts[k] = starts[i];
+                mergedEnds[k] = ends[i];
+                mergedIndices[k] = indices[i++];
+            } else {
+                int a = added[j++];
+                mergedStarts[k] = intervals.starts[a];
+                mergedEnds[k] = intervals.ends[a];
+                mergedIndices[k] = intervals.indices[a];
+            }
+        }
+        return new TimeIndex(size + intervals.total, mergedStarts, mergedEnds, mergedIndices);
+    }
+
+    /**
+     * The number of dialogues indexed, timed or not.
+     */
+    public int size() {
+        return size;
+    }
+
+    public int[] at(int centis) {
+        return between(centis, centis + 1);
+    }
+
+    public int[] at(LocalTime time) {
+        return at(Timestamps.toCentis(time));
+    }
+
+    /**
+     * Dialogues on screen at any moment of {@code [fromCentis, toCentis)}.
+     */
+    public int[] between(int fromCentis, int toCentis) {
+        var result = new IntArray();
+        forEachBetween(fromCentis, toCentis, result::add);
+        return result.toArray();
+    }
+
+    public void forEachBetween(int fromCentis, int toCentis, IntConsumer action) {
+        int candidates = upperBound(toCentis);
+        if (candidates > 0) {
+            collect(1, 0, leaves, candidates, fromCentis, action);
+        }
+    }
+
+    /**
+     * Visits, in start order, positions below {@code limit} whose end is after {@code from}.
+     */
+    private void collect(int node, int lo, int hi, int limit, int from, IntConsumer action) {
+        if (lo >= limit || maxEnds[node] <= from) {
+            return;
+        }
+        if (hi - lo == 1) {
+            action.accept(indices[lo]);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        collect(node * 2, lo, mid, limit, from, action);
+        collect(node * 2 + 1, mid, hi, limit, from, action);
+    }
+
+    /**
+     * The number of intervals starting before {@code centis}.
+     */
+    private int upperBound(int centis) {
+        int lo = 0;
+        int hi = starts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] < centis) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * The timed dialogues of a section, in section order.
+     */
+    private static final class Intervals {
+
+        private int[] starts = new int[16];
+
+        private int[] ends = new int[16];
+
+        private int[] indices = new int[16];
+
+        private int count;
+
+        private int total;
+
+        static Intervals of(EventSection event, int firstIndex) {
+            var intervals = new Intervals();
+            if (event instanceof DialogueTable table) {
+                for (int i = 0; i < table.size(); i++) {
+                    intervals.add(table.startCentis(i), table.endCentis(i), firstIndex + i);
+                }
+                intervals.total = table.size();
+            } else {
+                int index = firstIndex;
+                for (var dialogue : event) {
+                    if (dialogue != null && dialogue.getStart() != null && dialogue.getEnd() != null) {
+                        intervals.add(Timestamps.toCentis(dialogue.getStart()), Timestamps.toCentis(dialogue.getEnd()), index);
+                    }
+                    index++;
+                }
+                intervals.total = index - firstIndex;
+            }
+            return intervals;
+        }
+
+        void add(int start, int end, int index) {
+            if (start < 0 || end < 0) {
+                return;
+            }
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+                indices = Arrays.copyOf(indices, count * 2);
+            }
+            starts[count] = start;
+            ends[count] = end;
+            indices[count++] = index;
+        }
+
+        /**
+         * Positions sorted by start, then by position, so equal starts keep section order. Sorting packed longs avoids boxing.
+         */
+        int[] sorted() {
+            var keys = new long[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = (long) starts[i] << 32 | i;
+            }
+            Arrays.sort(keys);
+            var result = new int[count];
+            for (int i = 0; i < count; i++) {
+                result[i] = (int) keys[i];
+            }
+            return result;
+        }
+    }
+
+    private static final class IntArray {
+
+        private int[] values = new int[8];
+
+        private int count;
+
+        void add(int value) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, count);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.since1986.assa;
+
+import java.util.Arrays;
+
+/**
+ * A mapping of event times, in centiseconds. Results are rounded to the nearest centisecond and never negative.
+ */
+@FunctionalInterface
+public interface TimeMap {
+
+    int apply(int centis);
+
+    default TimeMap andThen(TimeMap after) {
+        return centis -> after.apply(apply(centis));
+    }
+
+    static TimeMap identity() {
+        return centis -> centis;
+    }
+
+    static TimeMap offset(int centis) {
+        return value -> Math.max(0, value + centis);
+    }
+
+    static TimeMap scale(double factor) {
+        if (!(factor > 0)) {
+            throw new IllegalArgumentException("factor must be positive: " + factor);
+        }
+        return value -> (int) Math.max(0, Math.round(value * factor));
+    }
+
+    /**
+     * Retimes a track made for video at {@code fromFps} to the same video played at {@code toFps}, eg. 23.976 to 25 for PAL speed-up.
+     */
+    static TimeMap framerate(double fromFps, double toFps) {
+        return scale(fromFps / toFps);
+    }
+
+    /**
+     * Linear between anchor points: {@code from[i]} maps to {@code to[i]}. Before the first and after the last anchor, the nearest segment is
+     * extended; a single anchor is a plain offset.
+     */
+    static TimeMap piecewise(int[] from, int[] to) {
+        if (from.length == 0 || from.length != to.length) {
+            throw new IllegalArgumentException("from and to must be non-empty and of equal length");
+        }
+        for (int i = 1; i < from.length; i++) {
+            if (from[i] <= from[i - 1]) {
+                throw new IllegalArgumentException("from must be strictly increasing");
+            }
+        }
+        if (from.length == 1) {
+            return offset(to[0] - from[0]);
+        }
+        var fromCopy = from.clone();
+        var toCopy = to.clone();
+        return value -> {
+            int segment = Arrays.binarySearch(fromCopy, value);
+            if (segment < 0) {
+                segment = -segment - 2;
+            }
+            segment = Math.max(0, Math.min(segment, fromCopy.length - 2));
+            double slope = (double) (toCopy[segment + 1] - toCopy[segment]) / (fromCopy[segment + 1] - fromCopy[segment]);
+            return (int) Math.max(0, Math.round(toCopy[segment] + (value - fromCopy[segment]) * slope));
+        };
+    }
+
+    /**
+     * Bakes the playback adjustments of a Script Info into the event times: the Timer speed (times are divided by {@code timer / 100}) and then a
+     * SynchPoint given as a {@code H:mm:ss.cc} timestamp (times are shifted by it). Other SynchPoint descriptions are ignored. After applying it,
+     * write the script with Timer 100 and no SynchPoint.
+     */
+    static TimeMap of(ScriptInfo scriptInfo) {
+        var map = identity();
+        var timer = scriptInfo.getTimer();
+        if (timer != null && timer != 100f) {
+            map = map.andThen(scale(100.0 / timer));
+        }
+        var synchPoint = scriptInfo.getSynchPoint();
+        if (synchPoint != null && !synchPoint.isBlank()) {
+            try {
+                map = map.andThen(offset(Timestamps.parse(synchPoint.trim())));
+            } catch (IllegalArgumentException e) {
+                // a free-form description, not a timestamp
+            }
+        }
+        return map;
+    }
+}
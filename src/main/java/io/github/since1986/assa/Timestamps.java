@@ -0,0 +1,118 @@
+package io.github.since1986.assa;
+
+import java.time.LocalTime;
+
+/**
+ * Conversions between {@link LocalTime}, centiseconds (the resolution of ASSA timestamps) and the {@code H:mm:ss.cc} text form.
+ */
+public final class Timestamps {
+
+    /**
+     * The longest text {@link #encode(int, char[], int)} can produce.
+     */
+    public static final int MAX_LENGTH = 16;
+
+    /**
+     * The latest time a {@link LocalTime}, and so a {@link Dialogue}, can hold: {@code 23:59:59.99}.
+     */
+    public static final int MAX_CENTIS = 24 * 360_000 - 1;
+
+    private static final long NANOS_PER_CENTI = 10_000_000L;
+
+    private Timestamps() {
+    }
+
+    public static int toCentis(LocalTime time) {
+        return (int) (time.toNanoOfDay() / NANOS_PER_CENTI);
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code centis} is negative or past {@link #MAX_CENTIS}
+     */
+    public static LocalTime ofCentis(int centis) {
+        if (centis < 0 || centis > MAX_CENTIS) {
+            throw new IllegalArgumentException("Timestamp %s is outside 0:00:00.00 to %s, which a LocalTime can hold"
+                    .formatted(centis < 0 ? centis + " centiseconds" : format(centis), format(MAX_CENTIS)));
+        }
+        return LocalTime.ofNanoOfDay(centis * NANOS_PER_CENTI);
+    }
+
+    /**
+     * Writes {@code centis} as {@code H:mm:ss.cc} into {@code buffer} starting at {@code pos}, and returns the position after the last written char.
+     */
+    public static int encode(int centis, char[] buffer, int pos) {
+        if (centis < 0) {
+            throw new IllegalArgumentException("Negative timestamp: " + centis);
+        }
+        pos = Numbers.encode(centis / 360_000, buffer, pos);
+        buffer[pos++] = ':';
+        pos = Numbers.encodeTwoDigits(centis / 6000 % 60, buffer, pos);
+        buffer[pos++] = ':';
+        pos = Numbers.encodeTwoDigits(centis / 100 % 60, buffer, pos);
+        buffer[pos++] = '.';
+        return Numbers.encodeTwoDigits(centis % 100, buffer, pos);
+    }
+
+    /**
+     * Writes {@code centis} as {@code HH:mm:ss,mmm} (SRT, {@code separator} {@code ','}) or {@code HH:mm:ss.mmm} (WebVTT, {@code '.'}) into
+     * {@code buffer} starting at {@code pos}, and returns the position after the last written char.
+     */
+    public static int encodeMillis(int centis, char separator, char[] buffer, int pos) {
+        if (centis < 0) {
+            throw new IllegalArgumentException("Negative timestamp: " + centis);
+        }
+        int hours = centis / 360_000;
+        pos = hours < 100 ? Numbers.encodeTwoDigits(hours, buffer, pos) : Numbers.encode(hours, buffer, pos);
+        buffer[pos++] = ':';
+        pos = Numbers.encodeTwoDigits(centis / 6000 % 60, buffer, pos);
+        buffer[pos++] = ':';
+        pos = Numbers.encodeTwoDigits(centis / 100 % 60, buffer, pos);
+        buffer[pos++] = separator;
+        pos = Numbers.encodeTwoDigits(centis % 100, buffer, pos);
+        buffer[pos++] = '0';
+        return pos;
+    }
+
+    public static String format(int centis) {
+        var buffer = new char[MAX_LENGTH];
+        return new String(buffer, 0, encode(centis, buffer, 0));
+    }
+
+    /**
+     * Parses {@code H:mm:ss.cc}. Any number of hour digits and one or two fraction digits are accepted.
+     */
+    public static int parse(CharSequence text) {
+        int[] fields = new int[3];
+        int field = 0;
+        int i = 0;
+        int length = text.length();
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                fields[field] = fields[field] * 10 + (c - '0');
+            } else if (c == ':' && field < 2) {
+                field++;
+            } else if (c == '.' && field == 2) {
+                break;
+            } else if (c != ' ') {
+                throw new IllegalArgumentException("Illegal timestamp: " + text);
+            }
+        }
+        if (field != 2) {
+            throw new IllegalArgumentException("Illegal timestamp: " + text);
+        }
+        int hundredths = 0;
+        int digits = 0;
+        for (i++; i < length && digits < 2; i++, digits++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Illegal timestamp: " + text);
+            }
+            hundredths = hundredths * 10 + (c - '0');
+        }
+        if (digits == 1) {
+            hundredths *= 10;
+        }
+        return ((fields[0] * 60 + fields[1]) * 60 + fields[2]) * 100 + hundredths;
+    }
+}
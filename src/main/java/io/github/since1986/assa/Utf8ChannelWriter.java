@@ -0,0 +1,276 @@
+package io.github.since1986.assa;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A {@link Writer} that encodes chars as UTF-8 straight into direct {@link ByteBuffer}s and writes filled buffers to a channel in one gathering
+ * write. ASCII, which is most of an ASSA file apart from the subtitle text, takes a one-byte fast path; there is no intermediate char or byte array.
+ * Buffers come from a small shared pool, so writing many files does not allocate new direct memory for each. Once a channel write fails, the
+ * buffered bytes are dropped and every later write, flush or close throws, since the channel position is no longer known. Not thread-safe.
+ */
+public final class Utf8ChannelWriter extends Writer {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Filled buffers collected before a gathering write.
+     */
+    static final int BUFFERS_PER_WRITE = 8;
+
+    private static final BlockingQueue<ByteBuffer> POOL = new ArrayBlockingQueue<>(64);
+
+    private static final char REPLACEMENT = '?';
+
+    private final WritableByteChannel channel;
+
+    private final boolean closeChannel;
+
+    private final List<ByteBuffer> filled = new ArrayList<>(BUFFERS_PER_WRITE);
+
+    private ByteBuffer current = acquire();
+
+    private char highSurrogate;
+
+    private boolean closed;
+
+    private Exception failure;
+
+    public Utf8ChannelWriter(WritableByteChannel channel) {
+        this(channel, true);
+    }
+
+    /**
+     * @param closeChannel whether {@link #close()} also closes {@code channel}
+     */
+    public Utf8ChannelWriter(WritableByteChannel channel, boolean closeChannel) {
+        this.channel = channel;
+        this.closeChannel = closeChannel;
+    }
+
+    /**
+     * Opens {@code path} for writing, by default creating or truncating it; {@link StandardOpenOption#WRITE} is always added.
+     */
+    static Utf8ChannelWriter open(Path path, OpenOption... options) throws IOException {
+        var openOptions = new HashSet<OpenOption>(Arrays.asList(options));
+        if (openOptions.isEmpty()) {
+            openOptions.add(StandardOpenOption.CREATE);
+            openOptions.add(StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        openOptions.add(StandardOpenOption.WRITE);
+        return new Utf8ChannelWriter(FileChannel.open(path, openOptions));
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+        ensureOpen();
+        int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            if (highSurrogate == 0) {
+                // fast path: a run of ASCII into the current buffer
+                int room = Math.min(end - i, current.remaining());
+                int stop = i + room;
+                while (i < stop && chars[i] < 0x80) {
+                    current.put((byte) chars[i++]);
+                }
+                if (i == end) {
+                    break;
+                }
+                if (!current.hasRemaining()) {
+                    next();
+                    continue;
+                }
+            }
+            encode(chars[i++]);
+        }
+    }
+
+    @Override
+    public void write(String text, int offset, int length) throws IOException {
+        append(text, offset, offset + length);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        ensureOpen();
+        encode((char) c);
+    }
+
+    @Override
+    public Writer append(CharSequence text) throws IOException {
+        var sequence = text == null ? "null" : text;
+        return append(sequence, 0, sequence.length());
+    }
+
+    @Override
+    public Writer append(CharSequence text, int start, int end) throws IOException {
+        ensureOpen();
+        var sequence = text == null ? "null" : text;
+        for (int i = start; i < end; i++) {
+            char c = sequence.charAt(i);
+            if (c < 0x80 && highSurrogate == 0 && current.hasRemaining()) {
+                current.put((byte) c);
+            } else {
+                encode(c);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Writer append(char c) throws IOException {
+        write(c);
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (current.position() > 0) {
+            filled.add(current);
+            current = acquire();
+        }
+        drain();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (highSurrogate != 0) {
+                highSurrogate = 0;
+                encode(REPLACEMENT);
+            }
+            flush();
+        } finally {
+            closed = true;
+            filled.forEach(Utf8ChannelWriter::release);
+            filled.clear();
+            release(current);
+            current = null;
+            if (closeChannel) {
+                channel.close();
+            }
+        }
+    }
+
+    private void encode(char c) throws IOException {
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                reserve(4);
+                current.put((byte) (0xF0 | codePoint >> 18));
+                current.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                current.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                current.put((byte) (0x80 | codePoint & 0x3F));
+                return;
+            }
+            encode(REPLACEMENT);
+        }
+        if (c < 0x80) {
+            reserve(1);
+            current.put((byte) c);
+        } else if (c < 0x800) {
+            reserve(2);
+            current.put((byte) (0xC0 | c >> 6));
+            current.put((byte) (0x80 | c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            encode(REPLACEMENT);
+        } else {
+            reserve(3);
+            current.put((byte) (0xE0 | c >> 12));
+            current.put((byte) (0x80 | c >> 6 & 0x3F));
+            current.put((byte) (0x80 | c & 0x3F));
+        }
+    }
+
+    private void reserve(int bytes) throws IOException {
+        if (current.remaining() < bytes) {
+            next();
+        }
+    }
+
+    private void next() throws IOException {
+        filled.add(current);
+        current = acquire();
+        if (filled.size() >= BUFFERS_PER_WRITE) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (filled.isEmpty()) {
+            return;
+        }
+        var buffers = filled.toArray(ByteBuffer[]::new);
+        filled.clear();
+        for (var buffer : buffers) {
+            buffer.flip();
+        }
+        try {
+            if (channel instanceof GatheringByteChannel gathering) {
+                int first = 0;
+                while (first < buffers.length) {
+                    gathering.write(buffers, first, buffers.length - first);
+                    while (first < buffers.length && !buffers[first].hasRemaining()) {
+                        first++;
+                    }
+                }
+            } else {
+                for (var buffer : buffers) {
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            for (var buffer : buffers) {
+                release(buffer);
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Writer closed");
+        }
+        if (failure != null) {
+            throw new IOException("An earlier channel write failed", failure);
+        }
+    }
+
+    private static ByteBuffer acquire() {
+        var buffer = POOL.poll();
+        return buffer == null ? ByteBuffer.allocateDirect(BUFFER_SIZE) : buffer;
+    }
+
+    private static void release(ByteBuffer buffer) {
+        if (buffer != null) {
+            buffer.clear();
+            POOL.offer(buffer);
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package io.github.since1986.assa;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Checks the dialogues of a document for data that renders wrong or breaks the file, in one pass, and reports each problem with the index of
+ * the line. Chunks of lines can be checked in parallel; ordering across chunk boundaries is checked when the chunks are joined, so the report is
+ * the same either way. The styles are taken from the document; {@code Default} and {@code *Default} are always known.
+ */
+public final class Validator {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+    private final Set<String> styles = new HashSet<>();
+
+    public Validator(StyleSection style) {
+        if (style != null) {
+            style.styles().forEach(s -> styles.add(s.getName()));
+        }
+    }
+
+    /**
+     * Iterates the document's event section once; the document can still be written afterwards. To check a {@link DialogueStream} whose source is
+     * costly to open, eg. a file, during the pass that writes it instead, see {@link #checking(EventSection)}.
+     */
+    public static List<Diagnostic> validate(AdvancedSubStationAlpha advancedSubStationAlpha) {
+        var event = advancedSubStationAlpha.event();
+        return event == null ? List.of() : new Validator(advancedSubStationAlpha.style()).validate(event);
+    }
+
+    /**
+     * Returns the problems found, ordered by line.
+     */
+    public List<Diagnostic> validate(EventSection event) {
+        var check = new Check();
+        if (event instanceof DialogueTable table) {
+            check.table(table, 0, table.size());
+        } else {
+            try (var dialogues = open(event)) {
+                int line = 0;
+                for (var iterator = dialogues.iterator(); iterator.hasNext(); ) {
+                    check.dialogue(line++, iterator.next());
+                }
+            }
+        }
+        return check.diagnostics;
+    }
+
+    /**
+     * Same result as {@link #validate(EventSection)}, with chunks of {@code chunkSize} lines checked on {@code executor}.
+     */
+    public List<Diagnostic> validate(EventSection event, Executor executor, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        int parallelism = executor instanceof ForkJoinPool pool ? pool.getParallelism() : Runtime.getRuntime().availableProcessors();
+        var join = new Join(executor, Math.max(2, parallelism * 2));
+        if (event instanceof DialogueTable table) {
+            for (int from = 0; from < table.size(); from += chunkSize) {
+                int start = from;
+                int end = Math.min(from + chunkSize, table.size());
+                join.submit(() -> new Check().table(table, start, end));
+            }
+        } else if (event instanceof Event e && e.items() != null) {
+            var items = e.items();
+            for (int from = 0; from < items.length; from += chunkSize) {
+                int start = from;
+                int end = Math.min(from + chunkSize, items.length);
+                join.submit(() -> new Check().dialogues(items, start, end, start));
+            }
+        } else {
+            try (var dialogues = open(event)) {
+                var iterator = dialogues.iterator();
+                int offset = 0;
+                while (iterator.hasNext()) {
+                    var chunk = new Dialogue[chunkSize];
+                    int count = 0;
+                    while (count < chunkSize && iterator.hasNext()) {
+                        chunk[count++] = iterator.next();
+                    }
+                    var items = count == chunkSize ? chunk : Arrays.copyOf(chunk, count);
+                    int start = offset;
+                    join.submit(() -> new Check().dialogues(items, 0, items.length, start));
+                    offset += count;
+                }
+            }
+        }
+        return join.finish();
+    }
+
+    public List<Diagnostic> validate(EventSection event, Executor executor) {
+        return validate(event, executor, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Wraps {@code event} so that every pass over it, eg. the one that writes it, also checks the lines going by; afterwards
+     * {@link Checked#diagnostics()} holds what the last complete pass found. Lines are checked one by one, so a {@link DialogueTable} loses its
+     * column fast path here; validate tables directly.
+     */
+    public Checked checking(EventSection event) {
+        return new Checked(event);
+    }
+
+    /**
+     * The dialogues of {@code event} as a stream to close after use, which releases the source of a {@link DialogueStream}.
+     */
+    private static Stream<Dialogue> open(EventSection event) {
+        return event instanceof DialogueStream stream ? stream.stream() : StreamSupport.stream(event.spliterator(), false);
+    }
+
+    private boolean knownStyle(String style) {
+        return styles.contains(style) || Styles.isDefault(style);
+    }
+
+    private static boolean hasLineBreak(CharSequence text) {
+        if (text == null) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks one chunk, remembering its first and last start time for the ordering check across chunks.
+     */
+    private final class Check {
+
+        private final List<Diagnostic> diagnostics = new ArrayList<>();
+
+        private int firstStartLine = -1;
+
+        private int firstStart;
+
+        private int lastStart = -1;
+
+        Check table(DialogueTable table, int from, int to) {
+            for (int i = from; i < to; i++) {
+                line(i, table.startCentis(i), table.endCentis(i), table.style(i), table.name(i), table.hasLineBreak(i));
+            }
+            return this;
+        }
+
+        /**
+         * Checks {@code items[from, to)}, the first of which is line {@code firstLine} of the section.
+         */
+        Check dialogues(Dialogue[] items, int from, int to, int firstLine) {
+            for (int i = from; i < to; i++) {
+                dialogue(firstLine + i - from, items[i]);
+            }
+            return this;
+        }
+
+        void dialogue(int line, Dialogue dialogue) {
+            if (dialogue == null) {
+                report(line, Problem.NULL_DIALOGUE, "null is written as the line");
+                return;
+            }
+            line(
+                    line,
+                    dialogue.getStart() == null ? -1 : Timestamps.toCentis(dialogue.getStart()),
+                    dialogue.getEnd() == null ? -1 : Timestamps.toCentis(dialogue.getEnd()),
+                    dialogue.getStyle(),
+                    dialogue.getName(),
+                    hasLineBreak(dialogue.getTex())
+            );
+        }
+
+        private void line(int line, int start, int end, String style, String name, boolean textLineBreak) {
+            if (start < 0) {
+                report(line, Problem.MISSING_START, "start is empty");
+            }
+            if (end < 0) {
+                report(line, Problem.MISSING_END, "end is empty");
+            }
+            if (start >= 0 && end >= 0 && end < start) {
+                report(line, Problem.END_BEFORE_START, "%s ends before it starts at %s".formatted(Timestamps.format(end), Timestamps.format(start)));
+            }
+            if (!knownStyle(style)) {
+                report(line, Problem.UNKNOWN_STYLE, "style " + style + " is not defined");
+            }
+            if (name != null && (name.indexOf(',') >= 0 || hasLineBreak(name))) {
+                report(line, Problem.ILLEGAL_NAME, "name contains a comma or line break");
+            }
+            if (textLineBreak) {
+                report(line, Problem.ILLEGAL_TEXT, "text contains a raw line break, use \\N");
+            }
+            if (start >= 0) {
+                if (firstStartLine < 0) {
+                    firstStartLine = line;
+                    firstStart = start;
+                } else if (start < lastStart) {
+                    report(line, Problem.UNSORTED, "starts before the previous line at " + Timestamps.format(lastStart));
+                }
+                lastStart = start;
+            }
+        }
+
+        private void report(int line, Problem problem, String detail) {
+            diagnostics.add(new Diagnostic(line, problem, detail));
+        }
+    }
+
+    /**
+     * Runs checks with at most {@code window} in flight and joins them in order.
+     */
+    private static final class Join {
+
+        private final Executor executor;
+
+        private final int window;
+
+        private final Deque<CompletableFuture<Check>> pending = new ArrayDeque<>();
+
+        private final List<Diagnostic> diagnostics = new ArrayList<>();
+
+        private int lastStart = -1;
+
+        private boolean unsortedAtBoundary;
+
+        Join(Executor executor, int window) {
+            this.executor = executor;
+            this.window = window;
+        }
+
+        void submit(Supplier<Check> check) {
+            pending.addLast(CompletableFuture.supplyAsync(check, executor));
+            if (pending.size() >= window) {
+                drain();
+            }
+        }
+
+        List<Diagnostic> finish() {
+            while (!pending.isEmpty()) {
+                drain();
+            }
+            if (unsortedAtBoundary) {
+                diagnostics.sort(Comparator.comparingInt(Diagnostic::line));
+            }
+            return diagnostics;
+        }
+
+        private void drain() {
+            Check check;
+            try {
+                check = pending.removeFirst().join();
+            } catch (CompletionException e) {
+                pending.forEach(future -> future.cancel(false));
+                pending.clear();
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw e;
+            }
+            diagnostics.addAll(check.diagnostics);
+            if (check.firstStartLine >= 0) {
+                if (check.firstStart < lastStart) {
+                    diagnostics.add(new Diagnostic(check.firstStartLine, Problem.UNSORTED, "starts before the previous line at " + Timestamps.format(lastStart)));
+                    unsortedAtBoundary = true;
+                }
+                lastStart = check.lastStart;
+            }
+        }
+    }
+
+    /**
+     * An event section that checks its lines while they are iterated, see {@link #checking(EventSection)}.
+     */
+    public final class Checked implements EventSection {
+
+        private final EventSection event;
+
+        private volatile List<Diagnostic> diagnostics;
+
+        private Checked(EventSection event) {
+            this.event = event;
+        }
+
+        /**
+         * The problems found by the last complete pass, ordered by line.
+         *
+         * @throws IllegalStateException if no pass has completed yet
+         */
+        public List<Diagnostic> diagnostics() {
+            var result = diagnostics;
+            if (result == null) {
+                throw new IllegalStateException("The event section has not been iterated to the end yet");
+            }
+            return result;
+        }
+
+        @Override
+        public Iterator<Dialogue> iterator() {
+            return checking(event.iterator());
+        }
+
+        /**
+         * Writes as {@link EventSection#writeLines} does, closing the stream opened from a {@link DialogueStream}.
+         */
+        @Override
+        public void writeLines(AssWriter writer) throws IOException {
+            try (var dialogues = open(event)) {
+                boolean first = true;
+                for (var iterator = checking(dialogues.iterator()); iterator.hasNext(); first = false) {
+                    if (!first) {
+                        writer.out().append('\n');
+                    }
+                    writer.writeDialogue(iterator.next());
+                }
+            }
+        }
+
+        private Iterator<Dialogue> checking(Iterator<Dialogue> source) {
+            var check = new Check();
+            return new Iterator<>() {
+                private int line;
+
+                @Override
+                public boolean hasNext() {
+                    if (source.hasNext()) {
+                        return true;
+                    }
+                    diagnostics = check.diagnostics;
+                    return false;
+                }
+
+                @Override
+                public Dialogue next() {
+                    var dialogue = source.next();
+                    check.dialogue(line++, dialogue);
+                    return dialogue;
+                }
+            };
+        }
+    }
+
+    public enum Problem {
+        NULL_DIALOGUE,
+        MISSING_START,
+        MISSING_END,
+        END_BEFORE_START,
+        UNKNOWN_STYLE,
+        ILLEGAL_NAME,
+        ILLEGAL_TEXT,
+        /**
+         * The line starts before the line written above it.
+         */
+        UNSORTED
+    }
+
+    /**
+     * @param line the index of the dialogue in the event section
+     */
+    public record Diagnostic(int line, Problem problem, String detail) {
+    }
+}
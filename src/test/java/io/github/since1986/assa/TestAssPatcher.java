@@ -0,0 +1,133 @@
+package io.github.since1986.assa;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class TestAssPatcher {
+
+    @Test
+    void testPatch(@TempDir Path directory) throws IOException {
+        var advancedSubStationAlpha = TestAssWriter.sample(1000);
+        var path = directory.resolve("patched.ass");
+        try (var writer = AssWriter.of(path)) {
+            writer.write(advancedSubStationAlpha);
+        }
+        var dialogues = advancedSubStationAlpha.event().iterator();
+        var original = new Dialogue[1000];
+        for (int i = 0; i < original.length; i++) {
+            original[i] = dialogues.next();
+        }
+        long size = Files.size(path);
+        try (var patcher = AssPatcher.open(path)) {
+            Assertions.assertEquals(1000, patcher.size());
+            patcher.replace(5, original[5].toBuilder().tex(original[5].getTex().replace('字', '句')).build());
+            Assertions.assertEquals(size, Files.size(path));
+            patcher.replace(7, original[7].toBuilder().tex("fixed").build());
+            patcher.delete(9);
+            Assertions.assertEquals(1000, patcher.insert(original[0].toBuilder().tex("inserted").build()));
+        }
+
+        var expected = advancedSubStationAlpha.toString()
+                .replace(original[5].toString(), original[5].toString().replace('字', '句'))
+                .replace(original[7].toString(), blank(original[7]))
+                .replace(original[9].toString(), blank(original[9]));
+        expected = expected.substring(0, expected.length() - 1)
+                + original[7].toBuilder().tex("fixed").build() + "\n"
+                + original[0].toBuilder().tex("inserted").build() + "\n\n";
+        Assertions.assertEquals(expected, Files.readString(path));
+        Assertions.assertTrue(Files.size(path) > size);
+
+        try (var channel = FileChannel.open(path)) {
+            var index = DialogueIndex.scan(channel);
+            Assertions.assertEquals(1000, index.size());
+            Assertions.assertTrue(index.eventsLast());
+        }
+        try (var reader = AssReader.open(path)) {
+            var read = reader.dialogues().toList();
+            Assertions.assertEquals(1000, read.size());
+            Assertions.assertEquals("fixed", read.get(998).getTex());
+            Assertions.assertEquals("inserted", read.get(999).getTex());
+        }
+
+        try (var patcher = AssPatcher.open(path)) {
+            patcher.delete(0);
+            patcher.compact();
+            // line indexes survive compaction
+            patcher.replace(1, original[1].toBuilder().tex(original[1].getTex().replace('字', '句')).build());
+            Assertions.assertEquals(-1, patcher.index().offset(0));
+        }
+        var compacted = expected
+                .replace(original[1].toString(), original[1].toString().replace('字', '句'))
+                .replace(original[0].toString() + "\n", "")
+                .replace(blank(original[7]) + "\n", "")
+                .replace(blank(original[9]) + "\n", "");
+        Assertions.assertEquals(compacted, Files.readString(path));
+    }
+
+    @Test
+    void testCompactWhenSparse(@TempDir Path directory) throws IOException {
+        var advancedSubStationAlpha = TestAssWriter.sample(100);
+        var path = directory.resolve("sparse.ass");
+        try (var writer = AssWriter.of(path)) {
+            writer.write(advancedSubStationAlpha);
+        }
+        var original = advancedSubStationAlpha.event().iterator();
+        try (var patcher = AssPatcher.open(path)) {
+            for (int i = 0; i < 100; i++) {
+                var dialogue = original.next();
+                if (i % 2 == 0) {
+                    patcher.replace(i, dialogue.toBuilder().tex(dialogue.getTex() + "!").build());
+                } else {
+                    patcher.delete(i);
+                }
+                Assertions.assertTrue(Files.size(path) < 2 * 9000);
+            }
+            patcher.compact();
+        }
+        try (var reader = AssReader.open(path)) {
+            var read = reader.dialogues().toList();
+            Assertions.assertEquals(50, read.size());
+            Assertions.assertTrue(read.stream().allMatch(dialogue -> dialogue.getTex().endsWith("!")));
+        }
+        Assertions.assertFalse(Files.readString(path).contains(";  "));
+    }
+
+    @Test
+    void testRejectRawLineBreaks(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("breaks.ass");
+        Files.writeString(path, AssWriter.EVENTS_HEADER + "Dialogue: 0,0:00:00.00,0:00:01.00,Default,,0,0,0,,a\n");
+        try (var patcher = AssPatcher.open(path)) {
+            var dialogue = Dialogue.builder().start(Timestamps.ofCentis(0)).end(Timestamps.ofCentis(100));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> patcher.replace(0, dialogue.tex("b\nc").build()));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> patcher.insert(dialogue.tex("b\r").build()));
+        }
+        Assertions.assertEquals(AssWriter.EVENTS_HEADER + "Dialogue: 0,0:00:00.00,0:00:01.00,Default,,0,0,0,,a\n", Files.readString(path));
+    }
+
+    @Test
+    void testAppendWithoutTrailingLineBreak(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("plain.ass");
+        Files.writeString(path, AssWriter.EVENTS_HEADER + "Dialogue: 0,0:00:00.00,0:00:01.00,Default,,0,0,0,,a");
+        try (var patcher = AssPatcher.open(path)) {
+            Assertions.assertEquals(1, patcher.size());
+            patcher.replace(0, Dialogue.builder().start(Timestamps.ofCentis(0)).end(Timestamps.ofCentis(100)).tex("b").build());
+            patcher.insert(Dialogue.builder().start(Timestamps.ofCentis(100)).end(Timestamps.ofCentis(200)).tex("cc").build());
+        }
+        // the blanked line is over half of this small file, so it is compacted away with its added line break
+        Assertions.assertEquals(AssWriter.EVENTS_HEADER + """
+                Dialogue: 0,0:00:00.00,0:00:01.00,Default,,0,0,0,,b
+                Dialogue: 0,0:00:01.00,0:00:02.00,Default,,0,0,0,,cc
+                """, Files.readString(path));
+    }
+
+    private static String blank(Dialogue dialogue) {
+        return ";" + " ".repeat(dialogue.toString().getBytes(StandardCharsets.UTF_8).length - 1);
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.since1986.assa;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalTime;
+
+class TestAssReader {
+
+    @Test
+    void testRoundTrip() throws IOException {
+        var advancedSubStationAlpha = TestAssWriter.sample(50);
+        try (var reader = new AssReader(new StringReader(advancedSubStationAlpha.toString()))) {
+            var read = new AdvancedSubStationAlpha(
+                    reader.scriptInfo(),
+                    reader.styles().get(0),
+                    new Event(reader.dialogues().toArray(Dialogue[]::new))
+            );
+            Assertions.assertEquals(advancedSubStationAlpha.toString(), read.toString());
+        }
+    }
+
+    @Test
+    void testFormatLines() throws IOException {
+        var text = """
+                ﻿[Script Info]
+                Title: sample
+                Original Script: someone
+                PlayResX: 1920
+                WrapStyle: 2
+
+                [V4+ Styles]
+                Format: Name, Fontname, Fontsize, Bold, Alignment
+                Style: Sign, Noto Sans CJK, 48, -1, 8
+
+                [Events]
+                Format: Start, End, Style, Effect, Text
+                Comment: 0:00:00.00,0:00:01.00,Sign,,ignored
+                Dialogue: 0:00:01.00,0:00:02.5,Sign,Scroll up;10;20;5,Hello, world
+                """;
+        try (var reader = new AssReader(new StringReader(text))) {
+            var scriptInfo = reader.scriptInfo().toString();
+            Assertions.assertTrue(scriptInfo.contains("Title: sample"));
+            Assertions.assertTrue(scriptInfo.contains("OriginalScript: someone"));
+            Assertions.assertTrue(scriptInfo.contains("PlayResX: 1920"));
+            Assertions.assertTrue(scriptInfo.contains("WrapStyle: 2"));
+            Assertions.assertTrue(reader.styles().get(0).toString().contains("Style: Sign,Noto Sans CJK,48,"));
+            Assertions.assertEquals("Dialogue: 0,0:00:01.00,0:00:02.50,Sign,,0,0,0,Scroll up;10;20;5,Hello, world", reader.nextDialogue().toString());
+            Assertions.assertNull(reader.nextDialogue());
+        }
+    }
+
+    @Test
+    void testLenientValues() throws IOException {
+        var text = """
+                [Script Info]
+                Collisions: normal
+
+                [V4+ Styles]
+                Format: Name, Fontname, Fontsize, ScaleX, ScaleY, Spacing, Outline, Shadow
+                Style: Soft, Arial, 20.0, 100.00, 95, 0, 1.0, 2.0
+                """;
+        try (var reader = new AssReader(new StringReader(text))) {
+            Assertions.assertTrue(reader.scriptInfo().toString().contains("Collisions: Normal"));
+            Assertions.assertTrue(reader.styles().get(0).toString().contains("Style: Soft,Arial,20,&H00FFFFFF,&H000000FF,&H00000000,&H00000000,0,0,0,0,100,95,0,0.0,1,1,2,"));
+        }
+        try (var reader = new AssReader(new StringReader(text.replace("1.0, 2.0", "1.5, 2.0")))) {
+            var exception = Assertions.assertThrows(NumberFormatException.class, reader::styles);
+            Assertions.assertTrue(exception.getMessage().contains("outline"));
+        }
+        try (var reader = new AssReader(new StringReader("[Script Info]\nCollisions: sideways\n"))) {
+            Assertions.assertFalse(reader.scriptInfo().toString().contains("Collisions: s"));
+        }
+    }
+
+    @Test
+    void testEventsWithoutFormat() throws IOException {
+        var text = """
+                [Script Info]
+                Title: No format
+
+                [Events]
+                Dialogue: 0,0:00:01.00,0:00:02.00,Default,,0,0,0,,first
+                Comment: 0,0:00:02.00,0:00:03.00,Default,,0,0,0,,skipped
+                Dialogue: 0,0:00:03.00,0:00:04.00,Default,,0,0,0,,second, with a comma
+                """;
+        try (var reader = new AssReader(new StringReader(text))) {
+            Assertions.assertTrue(reader.scriptInfo().toString().contains("Title: No format"));
+            var dialogues = reader.dialogues().toList();
+            Assertions.assertEquals(2, dialogues.size());
+            Assertions.assertEquals(LocalTime.of(0, 0, 1), dialogues.get(0).getStart());
+            Assertions.assertEquals("second, with a comma", dialogues.get(1).getTex());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package io.github.since1986.assa;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+class TestAssWriter {
+
+    static AdvancedSubStationAlpha sample(int count) {
+        var start = LocalTime.of(0, 0, 0);
+        var dialogues = new Dialogue[count];
+        for (int i = 0; i < count; i++) {
+            var end = start.plus(200, ChronoUnit.MILLIS);
+            dialogues[i] = Dialogue.builder()
+                    .start(start)
+                    .end(end)
+                    .tex("test-item-%s\\N第(%s)个条目的一行文字".formatted(i, i))
+                    .build();
+            start = end;
+        }
+        return new AdvancedSubStationAlpha(
+                ScriptInfo.builder().build(),
+                Style.builder().build(),
+                new Event(dialogues)
+        );
+    }
+
+    @Test
+    void testWriteToOutputStream() throws IOException {
+        var advancedSubStationAlpha = sample(100);
+        var outputStream = new ByteArrayOutputStream();
+        try (var writer = AssWriter.of(outputStream)) {
+            writer.write(advancedSubStationAlpha);
+        }
+        Assertions.assertEquals(advancedSubStationAlpha.toString(), outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testEmptyAndMissingEvent() {
+        var scriptInfo = ScriptInfo.builder().build();
+        var style = Style.builder().build();
+        Assertions.assertEquals(
+                "%s\n%s\n%s\n".formatted(scriptInfo, style, ""),
+                new AdvancedSubStationAlpha(scriptInfo, style, null).toString()
+        );
+        Assertions.assertEquals("""
+                [Events]
+                Format: Layer, Start, End, Style, Name, MarginL, MarginR, MarginV, Effect, Text
+                                
+                """, new Event().toString());
+    }
+
+    @Test
+    void testDialogueTable() {
+        var advancedSubStationAlpha = sample(1000);
+        var table = DialogueTable.of(advancedSubStationAlpha.event());
+        Assertions.assertEquals(1000, table.size());
+        Assertions.assertEquals(advancedSubStationAlpha.event().toString(), table.toString());
+        var copy = new DialogueTable(1).appendAll(table).appendAll(new Event(Dialogue.builder().name("n").build()));
+        Assertions.assertEquals(advancedSubStationAlpha.event().iterator().next().toString(), copy.get(0).toString());
+        Assertions.assertEquals("Dialogue: 0,,,Default,n,0,0,0,,", copy.get(1000).toString());
+        Assertions.assertEquals(
+                new AdvancedSubStationAlpha(advancedSubStationAlpha.scriptInfo(), advancedSubStationAlpha.style(), table).toString(),
+                advancedSubStationAlpha.toString()
+        );
+    }
+
+    @Test
+    void testParallel() throws IOException {
+        var advancedSubStationAlpha = sample(10_000);
+        var expected = advancedSubStationAlpha.toString();
+        var pool = new ForkJoinPool(4);
+        try {
+            for (var event : new EventSection[]{advancedSubStationAlpha.event(), DialogueTable.of(advancedSubStationAlpha.event()), advancedSubStationAlpha.event()::iterator}) {
+                var builder = new StringBuilder();
+                new AssWriter(builder).write(new AdvancedSubStationAlpha(advancedSubStationAlpha.scriptInfo(), advancedSubStationAlpha.style(), event), pool);
+                Assertions.assertEquals(expected, builder.toString());
+            }
+            var builder = new StringBuilder();
+            new AssWriter(builder).writeEvent(new Event(), pool, 3);
+            Assertions.assertEquals(new Event().toString(), builder.toString());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testDialogueStream() {
+        var advancedSubStationAlpha = sample(100);
+        var items = ((Event) advancedSubStationAlpha.event()).items();
+        var opened = new int[1];
+        var closed = new int[1];
+        var stream = DialogueStream.of(() -> {
+            opened[0]++;
+            return Arrays.stream(items).onClose(() -> closed[0]++);
+        });
+        var document = new AdvancedSubStationAlpha(advancedSubStationAlpha.scriptInfo(), advancedSubStationAlpha.style(), stream);
+        Assertions.assertEquals(advancedSubStationAlpha.toString(), document.toString());
+        // iterable again: each use opens the source afresh, and writing closes it
+        Assertions.assertEquals(advancedSubStationAlpha.toString(), document.toString());
+        Assertions.assertEquals(items.length, stream.stream().count());
+        Assertions.assertArrayEquals(new int[]{3, 2}, new int[]{opened[0], closed[0]});
+        var generated = DialogueStream.generate(() -> {
+            var index = new int[1];
+            return () -> index[0] < items.length ? items[index[0]++] : null;
+        });
+        Assertions.assertEquals(advancedSubStationAlpha.event().toString(), AssWriter.render(writer -> writer.writeEvent(generated)));
+        Assertions.assertEquals(advancedSubStationAlpha.event().toString(), AssWriter.render(writer -> writer.writeEvent(generated)));
+    }
+
+    @Test
+    void testUtf8ChannelWriter(@TempDir Path directory) throws IOException {
+        var advancedSubStationAlpha = sample(20_000);
+        var path = directory.resolve("output.ass");
+        try (var writer = AssWriter.of(path)) {
+            writer.write(advancedSubStationAlpha);
+        }
+        Assertions.assertEquals(advancedSubStationAlpha.toString(), Files.readString(path));
+
+        var text = "a\u00e9\u4e2d\ud83d\ude00z".repeat(50_000);
+        var bytes = new ByteArrayOutputStream();
+        try (var writer = new Utf8ChannelWriter(Channels.newChannel(bytes))) {
+            var chars = text.toCharArray();
+            for (int i = 0; i < chars.length; i += 5) {
+                writer.write(chars, i, Math.min(5, chars.length - i));
+            }
+            writer.append(text, 0, 7).write("\ud83d");
+        }
+        Assertions.assertEquals(text + text.substring(0, 7) + "?", bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testUtf8ChannelWriterFailure() throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        var failures = new int[]{1};
+        var channel = new WritableByteChannel() {
+
+            @Override
+            public int write(ByteBuffer source) throws IOException {
+                if (failures[0]-- > 0) {
+                    throw new IOException("disk full");
+                }
+                int length = source.remaining();
+                while (source.hasRemaining()) {
+                    bytes.write(source.get());
+                }
+                return length;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        var writer = new Utf8ChannelWriter(channel);
+        writer.write("first");
+        Assertions.assertThrows(IOException.class, writer::flush);
+        Assertions.assertThrows(IOException.class, () -> writer.write("second"));
+        Assertions.assertThrows(IOException.class, writer::flush);
+        Assertions.assertThrows(IOException.class, writer::close);
+        Assertions.assertEquals(0, bytes.size());
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.since1986.assa;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class TestBatchRenderer {
+
+    /**
+     * Blocks every render until {@link #release} opens, counting how many run at once.
+     */
+    private static final class GatedEvent implements EventSection {
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private final AtomicInteger running = new AtomicInteger();
+
+        private final AtomicInteger maxRunning = new AtomicInteger();
+
+        @Override
+        public Iterator<Dialogue> iterator() {
+            return new Event(Dialogue.builder().build()).iterator();
+        }
+
+        @Override
+        public void writeLines(AssWriter writer) throws IOException {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Assertions.assertTrue(release.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            } finally {
+                running.decrementAndGet();
+            }
+            EventSection.super.writeLines(writer);
+        }
+    }
+
+    @Test
+    void testConcurrencyCap(@TempDir Path directory) throws Exception {
+        var event = new GatedEvent();
+        var document = new AdvancedSubStationAlpha(ScriptInfo.builder().build(), Style.builder().build(), event);
+        var jobs = new ArrayList<BatchRenderer.Job>();
+        for (int i = 0; i < 6; i++) {
+            jobs.add(new BatchRenderer.Job(document, directory.resolve(i + ".ass")));
+        }
+        var executor = Executors.newFixedThreadPool(6);
+        try {
+            try (var renderer = new BatchRenderer(executor, 2)) {
+                var submitting = new CompletableFuture<List<CompletableFuture<Path>>>();
+                var submitter = new Thread(() -> submitting.complete(renderer.submitAll(jobs)));
+                submitter.start();
+                while (event.running.get() < 2) {
+                    Thread.onSpinWait();
+                }
+                Thread.sleep(100);
+                Assertions.assertEquals(2, event.running.get());
+                // the third job waits on the submitting thread, so the other pool threads stay free
+                Assertions.assertFalse(submitting.isDone());
+                Assertions.assertEquals("free", executor.submit(() -> "free").get(10, TimeUnit.SECONDS));
+                event.release.countDown();
+                var futures = submitting.get(10, TimeUnit.SECONDS);
+                for (int i = 0; i < futures.size(); i++) {
+                    Assertions.assertEquals(jobs.get(i).target(), futures.get(i).join());
+                    Assertions.assertEquals(document.toString(), Files.readString(jobs.get(i).target()));
+                }
+                Assertions.assertEquals(2, event.maxRunning.get());
+            }
+            // an executor passed in is not shut down by close
+            Assertions.assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testFailures(@TempDir Path directory) throws IOException {
+        var failing = new AdvancedSubStationAlpha(ScriptInfo.builder().build(), Style.builder().build(), () -> {
+            throw new IllegalStateException("broken track");
+        });
+        var renderer = new BatchRenderer(2);
+        var failed = renderer.submit(failing, directory.resolve("failing.ass"));
+        var missing = renderer.submit(TestAssWriter.sample(1), directory.resolve("missing").resolve("x.ass"));
+        var fine = renderer.submit(TestAssWriter.sample(1), directory.resolve("fine.ass"));
+        // close waits for the jobs on the renderer's own executor
+        renderer.close();
+        Assertions.assertTrue(failed.isDone() && missing.isDone() && fine.isDone());
+        var e = Assertions.assertThrows(CompletionException.class, failed::join);
+        Assertions.assertEquals("broken track", e.getCause().getMessage());
+        Assertions.assertInstanceOf(UncheckedIOException.class, Assertions.assertThrows(CompletionException.class, missing::join).getCause());
+        Assertions.assertEquals(directory.resolve("fine.ass"), fine.join());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BatchRenderer(0));
+    }
+
+    @Test
+    void testInterruptedSubmit(@TempDir Path directory) throws Exception {
+        var event = new GatedEvent();
+        var document = new AdvancedSubStationAlpha(ScriptInfo.builder().build(), Style.builder().build(), event);
+        var renderer = new BatchRenderer(1);
+        var running = renderer.submit(document, directory.resolve("running.ass"));
+        Thread.currentThread().interrupt();
+        var interrupted = renderer.submit(document, directory.resolve("interrupted.ass"));
+        Assertions.assertTrue(Thread.interrupted());
+        Assertions.assertInstanceOf(InterruptedException.class, Assertions.assertThrows(ExecutionException.class, interrupted::get).getCause());
+        event.release.countDown();
+        Assertions.assertEquals(directory.resolve("running.ass"), running.get(10, TimeUnit.SECONDS));
+        renderer.close();
+        Assertions.assertFalse(Files.exists(directory.resolve("interrupted.ass")));
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.since1986.assa;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalTime;
+
+class TestCoalescer {
+
+    private static Dialogue line(int startCentis, int endCentis, String tex) {
+        return Dialogue.builder()
+                .start(Timestamps.ofCentis(startCentis))
+                .end(Timestamps.ofCentis(endCentis))
+                .tex(tex)
+                .build();
+    }
+
+    @Test
+    void testMergesTouchingLines() {
+        var lines = new Dialogue[2000];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = line(i * 20, i * 20 + 20, new String("caption"));
+        }
+        var result = Coalescer.builder().build().coalesce(new Event(lines));
+        Assertions.assertEquals(1999, result.linesSaved());
+        Assertions.assertEquals(1, result.event().items().length);
+        var merged = result.event().items()[0];
+        Assertions.assertEquals(LocalTime.MIN, merged.getStart());
+        Assertions.assertEquals(Timestamps.ofCentis(40000), merged.getEnd());
+        Assertions.assertEquals(new Event(lines).toString().length() - result.event().toString().length(), result.bytesSaved());
+    }
+
+    @Test
+    void testKeepsDifferentAndDistantLines() {
+        var event = new Event(
+                line(0, 100, "a"),
+                line(50, 150, "a"),
+                line(150, 200, "b"),
+                line(300, 400, "b"),
+                line(420, 500, "b")
+        );
+        var result = Coalescer.builder().build().coalesce(event);
+        Assertions.assertEquals(1, result.linesSaved());
+        Assertions.assertEquals(4, result.event().items().length);
+        Assertions.assertEquals(Timestamps.ofCentis(150), result.event().items()[0].getEnd());
+
+        var gapped = Coalescer.builder().maxGap(20).build().coalesce(event);
+        Assertions.assertEquals(2, gapped.linesSaved());
+        Assertions.assertEquals(Timestamps.ofCentis(500), gapped.event().items()[2].getEnd());
+    }
+
+    @Test
+    void testInternsTexts() {
+        var result = Coalescer.builder().build().coalesce(new Event(line(0, 10, new String("x")), line(100, 110, new String("x"))));
+        Assertions.assertSame(result.event().items()[0].getTex(), result.event().items()[1].getTex());
+        Assertions.assertEquals(0, result.linesSaved());
+    }
+
+    @Test
+    void testMergesParsedEffects() throws IOException {
+        var text = AssWriter.EVENTS_HEADER + """
+                Dialogue: 0,0:00:00.00,0:00:01.00,Default,,0,0,0,Karaoke,la
+                Dialogue: 0,0:00:01.00,0:00:02.00,Default,,0,0,0,Karaoke,la
+                Dialogue: 0,0:00:02.00,0:00:03.00,Default,,0,0,0,Fade;in,la
+                Dialogue: 0,0:00:03.00,0:00:04.00,Default,,0,0,0,Fade;in,la
+                Dialogue: 0,0:00:04.00,0:00:05.00,Default,,0,0,0,,la
+                Dialogue: 0,0:00:05.00,0:00:06.00,Default,,0,0,0,,la
+                """;
+        try (var reader = new AssReader(new StringReader(text))) {
+            var result = Coalescer.builder().build().coalesce(new Event(reader.dialogues().toArray(Dialogue[]::new)));
+            Assertions.assertEquals(AssWriter.EVENTS_HEADER + """
+                    Dialogue: 0,0:00:00.00,0:00:02.00,Default,,0,0,0,Karaoke,la
+                    Dialogue: 0,0:00:02.00,0:00:04.00,Default,,0,0,0,Fade;in,la
+                    Dialogue: 0,0:00:04.00,0:00:06.00,Default,,0,0,0,,la
+                    """, result.event().toString());
+        }
+        Assertions.assertEquals(Dialogue.Effect.UNDEFINED, new Dialogue.Effect.Undefined());
+        Assertions.assertNotEquals(Dialogue.Effect.UNDEFINED, Dialogue.Effect.parse("Karaoke"));
+    }
+}
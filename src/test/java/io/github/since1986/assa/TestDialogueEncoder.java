@@ -0,0 +1,38 @@
+package io.github.since1986.assa;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+class TestDialogueEncoder {
+
+    @Test
+    void testTimestamps() {
+        var formatter = DateTimeFormatter.ofPattern("H:mm:ss.SS");
+        for (var time : new LocalTime[]{LocalTime.MIDNIGHT, LocalTime.of(0, 0, 0, 9_999_999), LocalTime.of(1, 2, 3, 450_000_000), LocalTime.of(23, 59, 59, 999_999_999)}) {
+            var centis = Timestamps.toCentis(time);
+            Assertions.assertEquals(time.format(formatter), Timestamps.format(centis));
+            Assertions.assertEquals(centis, Timestamps.parse(Timestamps.format(centis)));
+        }
+        Assertions.assertEquals("12:00:00.00", Timestamps.format(12 * 360_000));
+        Assertions.assertEquals(150, Timestamps.parse("0:00:01.5"));
+    }
+
+    @Test
+    void testEncode() {
+        var encoder = new DialogueEncoder();
+        var dialogue = Dialogue.builder()
+                .layer(-3)
+                .start(LocalTime.of(1, 2, 3, 450_000_000))
+                .name("Narrator")
+                .marginV(Integer.MIN_VALUE)
+                .effect(Dialogue.Effect.UNDEFINED)
+                .tex("a,b\\N测试")
+                .build();
+        Assertions.assertEquals("Dialogue: -3,1:02:03.45,,Default,Narrator,0,0,-2147483648,,a,b\\N测试", encoder.encode(dialogue).toString());
+        var karaoke = Dialogue.builder().effect(new Dialogue.Effect.Karaoke()).tex(null).build();
+        Assertions.assertEquals("Dialogue: 0,,,Default,,0,0,0,Karaoke,null", encoder.encode(karaoke).toString());
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.since1986.assa;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestDrawing {
+
+    @Test
+    void testRepeatedCommandsAreWrittenOnce() {
+        var drawing = new Drawing().moveTo(0, 0).lineTo(100, 0).lineTo(100, 100).bezierTo(70, 100, 30, 100, 0, 100);
+        Assertions.assertEquals("m 0 0 l 100 0 100 100 b 70 100 30 100 0 100", drawing.toString());
+    }
+
+    @Test
+    void testTex() {
+        var drawing = new Drawing().moveTo(0, 0).lineTo(10, 10);
+        Assertions.assertEquals("{\\pos(5,5)}{\\p1}m 0 0 l 10 10{\\p0}", drawing.tex(new OverrideTags().pos(5, 5)));
+        Assertions.assertEquals("{\\p1}m 0 0 l 10 10{\\p0}", drawing.tex());
+    }
+
+    @Test
+    void testScaleDropsCoincidentPoints() {
+        var drawing = new Drawing(3).moveTo(0.25, 0.5).lineTo(0.26, 0.5).lineTo(1, 1);
+        Assertions.assertEquals("m 1 2 l 4 4", drawing.toString());
+    }
+
+    @Test
+    void testSimplify() {
+        var drawing = new Drawing().moveTo(0, 0);
+        for (int i = 1; i <= 100; i++) {
+            drawing.lineTo(i, Math.sin(i) * 0.1);
+        }
+        drawing.lineTo(100, 100).bezierTo(70, 100.2, 30, 99.9, 0, 100).bezierTo(0, 70, 10, 30, 0, 0);
+        drawing.simplify(0.5);
+        Assertions.assertEquals(5, drawing.size());
+        Assertions.assertEquals("m 0 0 l 100 0 100 100 0 100 b 0 70 10 30 0 0", drawing.toString());
+    }
+
+    @Test
+    void testSimplifyKeepsCorners() {
+        var drawing = new Drawing().moveTo(0, 0).polyline(5, 0, 10, 0, 10, 5, 10, 10).simplify(0.1);
+        Assertions.assertEquals("m 0 0 l 10 0 10 10", drawing.toString());
+    }
+
+    @Test
+    void testStartsWithMove() {
+        Assertions.assertThrows(IllegalStateException.class, () -> new Drawing().lineTo(1, 1));
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.since1986.assa;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestKaraoke {
+
+    private static final CharSequence[] SYLLABLES = {"Ka", "ra", "o", "ke"};
+
+    @Test
+    void testCentisecondDurations() {
+        var karaoke = new Karaoke(Karaoke.Tag.K);
+        Assertions.assertEquals("{\\k25}Ka{\\k30}ra{\\k45}o{\\k50}ke", karaoke.text(SYLLABLES, new int[]{25, 30, 45, 50}).toString());
+    }
+
+    @Test
+    void testMillisecondDurationsDoNotDrift() {
+        var karaoke = new Karaoke(Karaoke.Tag.KF);
+        Assertions.assertEquals("{\\kf25}Ka{\\kf26}ra{\\kf25}o{\\kf26}ke", karaoke.textFromMillis(SYLLABLES, new long[]{254, 254, 254, 254}).toString());
+    }
+
+    @Test
+    void testDialogueSpansBoundaries() {
+        var dialogue = new Karaoke(Karaoke.Tag.KO).dialogue("Song", SYLLABLES, new long[]{1004, 1258, 1512, 1766, 2020});
+        Assertions.assertEquals("Dialogue: 0,0:00:01.00,0:00:02.02,Song,,0,0,0,,{\\ko26}Ka{\\ko25}ra{\\ko26}o{\\ko25}ke", dialogue.toString());
+    }
+
+    @Test
+    void testAppendToTable() {
+        var karaoke = new Karaoke(Karaoke.Tag.K);
+        var table = new DialogueTable();
+        karaoke.appendTo(table, "Song", SYLLABLES, new long[]{0, 100, 200, 300, 400});
+        karaoke.appendTo(table, "Song", new CharSequence[]{"la"}, new long[]{500, 750});
+        Assertions.assertEquals(2, table.size());
+        Assertions.assertEquals("{\\k10}Ka{\\k10}ra{\\k10}o{\\k10}ke", table.text(0));
+        Assertions.assertEquals("{\\k25}la", table.text(1));
+        Assertions.assertEquals(50, table.startCentis(1));
+    }
+
+    @Test
+    void testDecreasingBoundaries() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Karaoke(Karaoke.Tag.K).textAt(new CharSequence[]{"a"}, new long[]{100, 50}));
+    }
+}
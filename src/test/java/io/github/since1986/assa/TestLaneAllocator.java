@@ -0,0 +1,54 @@
+package io.github.since1986.assa;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestLaneAllocator {
+
+    private static Dialogue line(int startCentis, int endCentis, String tex) {
+        return Dialogue.builder().start(Timestamps.ofCentis(startCentis)).end(Timestamps.ofCentis(endCentis)).tex(tex).build();
+    }
+
+    @Test
+    void testLanes() {
+        var untimed = Dialogue.builder().tex("untimed").build();
+        var event = new Event(
+                line(100, 300, "c"),
+                line(0, 200, "a"),
+                untimed,
+                line(50, 100, "b"),
+                line(200, 250, "d")
+        );
+        var result = LaneAllocator.builder().lanes(3).laneHeight(30).baseMarginV(5).baseLayer(1).build().allocate(event);
+        var items = result.event().items();
+        Assertions.assertEquals(0, result.overflowed());
+        // original order is kept
+        Assertions.assertEquals("c", items[0].getTex());
+        Assertions.assertEquals("a", items[1].getTex());
+        Assertions.assertSame(untimed, items[2]);
+        Assertions.assertEquals("b", items[3].getTex());
+        Assertions.assertEquals("d", items[4].getTex());
+        // a and b overlap; c reuses b's lane, which ends exactly when c starts
+        Assertions.assertEquals(1, items[1].getLayer());
+        Assertions.assertEquals(5, items[1].getMarginV());
+        Assertions.assertEquals(2, items[3].getLayer());
+        Assertions.assertEquals(35, items[3].getMarginV());
+        Assertions.assertEquals(2, items[0].getLayer());
+        // d starts when a ends
+        Assertions.assertEquals(1, items[4].getLayer());
+    }
+
+    @Test
+    void testOverflow() {
+        var event = new Event(line(0, 100, "a"), line(10, 200, "b"), line(20, 300, "c"), line(30, 400, "d"));
+        var result = LaneAllocator.builder().lanes(2).build().allocate(event);
+        Assertions.assertEquals(2, result.overflowed());
+        var items = result.event().items();
+        Assertions.assertEquals(0, items[0].getLayer());
+        Assertions.assertEquals(1, items[1].getLayer());
+        // the lane that frees up first is reused
+        Assertions.assertEquals(0, items[2].getLayer());
+        Assertions.assertEquals(1, items[3].getLayer());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LaneAllocator.builder().lanes(0).build().allocate(event));
+    }
+}
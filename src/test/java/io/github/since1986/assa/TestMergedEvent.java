@@ -0,0 +1,42 @@
+package io.github.since1986.assa;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+class TestMergedEvent {
+
+    private static Dialogue line(int startCentis, String tex) {
+        return Dialogue.builder().start(Timestamps.ofCentis(startCentis)).end(Timestamps.ofCentis(startCentis + 100)).tex(tex).build();
+    }
+
+    @Test
+    void testMerge() {
+        var dialogue = new Event(line(0, "d0"), line(100, "d1"), line(300, "d2"));
+        var signs = new Event(Dialogue.builder().tex("untimed").build(), line(100, "s0"), line(200, "s1"));
+        var karaoke = DialogueTable.of(new Event(line(100, "k0"), line(250, "k1"), line(400, "k2")));
+        var empty = new Event();
+        var merged = MergedEvent.of(dialogue, empty, signs, karaoke);
+
+        var texts = new ArrayList<String>();
+        merged.forEach(d -> texts.add(d.getTex()));
+        Assertions.assertEquals(List.of("untimed", "d0", "d1", "s0", "k0", "s1", "k1", "d2", "k2"), texts);
+
+        var concatenated = new ArrayList<Dialogue>();
+        for (var track : List.<EventSection>of(dialogue, empty, signs, karaoke)) {
+            track.forEach(concatenated::add);
+        }
+        // List.sort is stable, so ties keep track order
+        concatenated.sort(Comparator.comparingInt(d -> d.getStart() == null ? -1 : Timestamps.toCentis(d.getStart())));
+        Assertions.assertEquals(new Event(concatenated.toArray(Dialogue[]::new)).toString(), AssWriter.render(writer -> writer.writeEvent(merged)));
+
+        // iterable again
+        var again = new ArrayList<String>();
+        merged.forEach(d -> again.add(d.getTex()));
+        Assertions.assertEquals(texts, again);
+        Assertions.assertFalse(MergedEvent.of(empty, new Event()).iterator().hasNext());
+    }
+}
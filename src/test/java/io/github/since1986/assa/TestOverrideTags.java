@@ -0,0 +1,37 @@
+package io.github.since1986.assa;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestOverrideTags {
+
+    @Test
+    void testColourAndAlpha() {
+        Assertions.assertEquals("{\\c&H3456AB&}", new OverrideTags().colour(0xAB5634).toString());
+        Assertions.assertEquals("{\\3c&H0000FF&\\alpha&H80&\\4a&HFF&}", new OverrideTags().colour(3, 0xFF0000).alpha(0x80).alpha(4, 0xFF).toString());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new OverrideTags().colour(5, 0));
+    }
+
+    @Test
+    void testTags() {
+        var tags = new OverrideTags().pos(640, 360).fad(200, 300).bold(true).alignment(Style.Alignment.MID_TOP).reset("Sign");
+        Assertions.assertEquals("{\\pos(640,360)\\fad(200,300)\\b1\\an8\\rSign}", tags.toString());
+        Assertions.assertEquals("", tags.clear().toString());
+        Assertions.assertTrue(tags.isEmpty());
+    }
+
+    @Test
+    void testTemplate() {
+        var template = TextTemplate.compile("%s100%% %s!");
+        Assertions.assertEquals(2, template.slots());
+        var tags = new OverrideTags().pos(10, 20).colour(0x00FF00);
+        Assertions.assertEquals("{\\pos(10,20)\\c&H00FF00&}100% done!", template.format(tags, "done"));
+        Assertions.assertEquals(tags + "100% done!", template.line(new StringBuilder()).arg(tags).arg("done").toString());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> template.format("only one"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> template.format("a", "b", "c"));
+        Assertions.assertThrows(IllegalStateException.class, () -> template.line(new StringBuilder()).arg(1).text());
+        Assertions.assertThrows(IllegalStateException.class, () -> template.line(new StringBuilder()).arg(1).arg(2).arg(3));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> TextTemplate.compile("%d"));
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.since1986.assa;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+class TestRenderMetrics {
+
+    @AfterEach
+    void tearDown() {
+        RenderMetrics.global().disable();
+        RenderMetrics.global().reset();
+    }
+
+    @Test
+    void testCounters() throws IOException {
+        var advancedSubStationAlpha = TestAssWriter.sample(5000);
+        long bytes = advancedSubStationAlpha.toString().getBytes(StandardCharsets.UTF_8).length;
+        var metrics = RenderMetrics.global();
+        metrics.reset();
+        new AssWriter(new StringBuilder()).write(advancedSubStationAlpha);
+        Assertions.assertEquals(new RenderMetrics.Snapshot(0, 0, 0, 0), metrics.snapshot());
+
+        metrics.enable();
+        new AssWriter(new StringBuilder()).write(advancedSubStationAlpha);
+        new AssWriter(new StringBuilder()).write(advancedSubStationAlpha, ForkJoinPool.commonPool());
+        var snapshot = metrics.snapshot();
+        Assertions.assertEquals(2, snapshot.documents());
+        Assertions.assertEquals(10_000, snapshot.dialogues());
+        // the line breaks between sections belong to the document only
+        Assertions.assertEquals(2 * (bytes - 3), snapshot.bytes());
+        Assertions.assertTrue(snapshot.nanos() > 0);
+        Assertions.assertTrue(snapshot.dialoguesPerSecond() > 0);
+    }
+
+    @Test
+    void testFlightRecorderEvents(@TempDir Path directory) throws IOException {
+        var advancedSubStationAlpha = TestAssWriter.sample(100);
+        var path = directory.resolve("render.jfr");
+        Assertions.assertFalse(RenderEvents.enabled());
+        try (var recording = new Recording()) {
+            recording.enable("io.github.since1986.assa.RenderDocument");
+            recording.enable("io.github.since1986.assa.RenderSection");
+            recording.start();
+            Assertions.assertTrue(RenderEvents.enabled());
+            new AssWriter(new StringBuilder()).write(advancedSubStationAlpha);
+            recording.stop();
+            recording.dump(path);
+        }
+        Assertions.assertFalse(RenderEvents.enabled());
+        var events = RecordingFile.readAllEvents(path);
+        var document = events.stream().filter(event -> event.getEventType().getName().endsWith("RenderDocument")).findFirst().orElseThrow();
+        Assertions.assertEquals(100, document.getLong("dialogues"));
+        Assertions.assertEquals(advancedSubStationAlpha.toString().getBytes(StandardCharsets.UTF_8).length, document.getLong("bytes"));
+        var sections = events.stream()
+                .filter(event -> event.getEventType().getName().endsWith("RenderSection"))
+                .collect(Collectors.toMap(event -> event.getString("section"), (RecordedEvent event) -> event.getLong("lines")));
+        Assertions.assertEquals(100, sections.get("[Events]"));
+        Assertions.assertEquals(1, sections.get("[V4+ Styles]"));
+        Assertions.assertTrue(sections.containsKey("[Script Info]"));
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.since1986.assa;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+class TestRetimer {
+
+    @Test
+    void testTimeMaps() {
+        Assertions.assertEquals(0, TimeMap.offset(-500).apply(100));
+        Assertions.assertEquals(2398, TimeMap.framerate(23.976, 25).apply(2500));
+        var piecewise = TimeMap.piecewise(new int[]{0, 1000, 2000}, new int[]{100, 1100, 3100});
+        Assertions.assertEquals(600, piecewise.apply(500));
+        Assertions.assertEquals(2100, piecewise.apply(1500));
+        Assertions.assertEquals(5100, piecewise.apply(3000));
+        var scriptInfo = ScriptInfo.builder().timer(200f).synchPoint("0:00:10.00").build();
+        Assertions.assertEquals(1500, TimeMap.of(scriptInfo).apply(1000));
+        Assertions.assertEquals(1000, TimeMap.of(ScriptInfo.builder().synchPoint("after the opening").build()).apply(1000));
+    }
+
+    @Test
+    void testRetime() {
+        var event = (Event) TestAssWriter.sample(20_000).event();
+        var map = TimeMap.offset(150).andThen(TimeMap.scale(2));
+        var retimed = Retimer.retime(event, map);
+        var original = DialogueTable.of(event);
+        var table = Retimer.retime(original, map);
+        // the copy is retimed, the argument is left alone
+        Assertions.assertEquals(event.toString(), original.toString());
+        Retimer.retimeInPlace(original, map);
+        Assertions.assertEquals(retimed.toString(), original.toString());
+        EventSection streamed = Retimer.retime(DialogueStream.of(() -> Arrays.stream(event.items())), map);
+        Assertions.assertEquals("Dialogue: 0,0:00:03.00,0:00:03.40,Default,,0,0,0,,test-item-0\\N第(0)个条目的一行文字", retimed.items()[0].toString());
+        Assertions.assertEquals(retimed.toString(), table.toString());
+        Assertions.assertEquals(retimed.toString(), AssWriter.render(writer -> writer.writeEvent(streamed)));
+    }
+
+    @Test
+    void testEndOfDay() {
+        var last = Dialogue.builder().start(Timestamps.ofCentis(Timestamps.MAX_CENTIS - 200)).end(Timestamps.ofCentis(Timestamps.MAX_CENTIS - 100)).build();
+        var event = new Event(Dialogue.builder().start(Timestamps.ofCentis(0)).end(Timestamps.ofCentis(100)).build(), last);
+        Assertions.assertEquals("23:59:59.99", Timestamps.format(Timestamps.toCentis(Retimer.retime(event, TimeMap.offset(100)).items()[1].getEnd())));
+
+        var e = Assertions.assertThrows(IllegalArgumentException.class, () -> Retimer.retime(event, TimeMap.offset(101)));
+        Assertions.assertEquals("Line 1: 23:59:58.99 is retimed to 24:00:00.00, past 23:59:59.99", e.getMessage());
+        var table = DialogueTable.of(event);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Retimer.retimeInPlace(table, TimeMap.offset(101)));
+        Assertions.assertEquals(event.toString(), table.toString());
+        EventSection streamed = Retimer.retime(DialogueStream.of(() -> Arrays.stream(event.items())), TimeMap.scale(2));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AssWriter.render(writer -> writer.writeEvent(streamed)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Timestamps.ofCentis(Timestamps.MAX_CENTIS + 1));
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.since1986.assa;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class TestSegmenter {
+
+    private static Dialogue line(int startCentis, int endCentis, String tex) {
+        return Dialogue.builder().start(Timestamps.ofCentis(startCentis)).end(Timestamps.ofCentis(endCentis)).tex(tex).build();
+    }
+
+    private static List<String> texts(Segmenter.Segment segment) {
+        return Arrays.stream(((Event) segment.document().event()).items()).map(Dialogue::getTex).toList();
+    }
+
+    @Test
+    void testSegments() {
+        var scriptInfo = ScriptInfo.builder().build();
+        var style = Style.builder().build();
+        var segmenter = Segmenter.builder().scriptInfo(scriptInfo).style(style).segmentCentis(100).build();
+        var segments = segmenter.segment(new Event(
+                line(10, 50, "a"),
+                line(80, 250, "b"),
+                line(420, 430, "c")
+        ));
+        Assertions.assertEquals(5, segments.size());
+        Assertions.assertEquals(List.of("a", "b"), texts(segments.get(0)));
+        Assertions.assertEquals(List.of("b"), texts(segments.get(1)));
+        Assertions.assertEquals(List.of("b"), texts(segments.get(2)));
+        Assertions.assertEquals(List.of(), texts(segments.get(3)));
+        Assertions.assertEquals(List.of("c"), texts(segments.get(4)));
+
+        var b = ((Event) segments.get(1).document().event()).items()[0];
+        Assertions.assertEquals(Timestamps.ofCentis(100), b.getStart());
+        Assertions.assertEquals(Timestamps.ofCentis(200), b.getEnd());
+        Assertions.assertEquals(400, segments.get(4).startCentis());
+        Assertions.assertSame(scriptInfo, segments.get(3).document().scriptInfo());
+        Assertions.assertSame(style, segments.get(3).document().style());
+    }
+
+    @Test
+    void testIncremental() {
+        var emitted = new ArrayList<Segmenter.Segment>();
+        var session = Segmenter.builder().segmentCentis(100).clip(false).build().open(emitted::add);
+        session.accept(line(0, 150, "a"));
+        Assertions.assertTrue(emitted.isEmpty());
+        session.accept(line(120, 130, "b"));
+        Assertions.assertEquals(1, emitted.size());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> session.accept(line(50, 60, "c")));
+        session.finish();
+        Assertions.assertEquals(2, emitted.size());
+        Assertions.assertEquals(List.of("a", "b"), texts(emitted.get(1)));
+        Assertions.assertEquals(Timestamps.ofCentis(0), ((Event) emitted.get(1).document().event()).items()[0].getStart());
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.since1986.assa;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+class TestSsaUuencoder {
+
+    /**
+     * Straightforward reference: 6-bit groups plus 33, then broken into lines of 80.
+     */
+    static String reference(byte[] data) {
+        var encoded = new StringBuilder();
+        for (int i = 0; i < data.length; i += 3) {
+            int remaining = Math.min(3, data.length - i);
+            int bits = (data[i] & 0xFF) << 16 | (remaining > 1 ? (data[i + 1] & 0xFF) << 8 : 0) | (remaining > 2 ? data[i + 2] & 0xFF : 0);
+            for (int j = 0; j <= remaining; j++) {
+                encoded.append((char) ((bits >>> (18 - 6 * j) & 0x3F) + 33));
+            }
+        }
+        var lines = new StringBuilder();
+        for (int i = 0; i < encoded.length(); i += 80) {
+            lines.append(encoded, i, Math.min(i + 80, encoded.length())).append('\n');
+        }
+        return lines.toString();
+    }
+
+    @Test
+    void testAgainstReference() throws IOException {
+        var random = new Random(7);
+        for (int length = 0; length < 400; length++) {
+            var data = new byte[length];
+            random.nextBytes(data);
+            var out = new StringBuilder();
+            var encoder = new SsaUuencoder(out);
+            for (int i = 0; i < length; i += 7) {
+                encoder.update(ByteBuffer.wrap(data, i, Math.min(7, length - i)));
+            }
+            encoder.finish();
+            Assertions.assertEquals(reference(data), out.toString());
+        }
+    }
+
+    @Test
+    void testDocument(@TempDir Path directory) throws IOException {
+        var data = new byte[200_000];
+        new Random(8).nextBytes(data);
+        var font = Files.write(directory.resolve("font.ttf"), data);
+        var sample = TestAssWriter.sample(2);
+        var document = new AdvancedSubStationAlpha(
+                sample.scriptInfo(),
+                sample.style(),
+                sample.event(),
+                Attachment.graphic("logo.png", ByteBuffer.wrap(new byte[]{1, 2, 3, 4})),
+                Attachment.font("font_B0.ttf", font)
+        );
+        var expected = sample.scriptInfo() + "\n" + sample.style() + "\n"
+                + "[Fonts]\nfontname: font_B0.ttf\n" + reference(data) + "\n"
+                + "[Graphics]\nfilename: logo.png\n" + reference(new byte[]{1, 2, 3, 4}) + "\n"
+                + sample.event() + "\n";
+        Assertions.assertEquals(expected, document.toString());
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.since1986.assa;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+class TestStyles {
+
+    @Test
+    void testRender() {
+        var styles = Styles.of(
+                Style.builder().build(),
+                Style.builder().name("Sign").fontsize(48).alignment(Style.Alignment.MID_TOP).build()
+        );
+        Assertions.assertEquals("""
+                [V4+ Styles]
+                Format: Name,Fontname,Fontsize,PrimaryColour,SecondaryColour,OutlineColour,BackColour,Bold,Italic,Underline,StrikeOut,ScaleX,ScaleY,Spacing,Angle,BorderStyle,Outline,Shadow,Alignment,MarginL,MarginR,MarginV,Encoding
+                Style: Default,Arial,20,&H00FFFFFF,&H000000FF,&H00000000,&H00000000,0,0,0,0,100,100,0,0.0,1,2,2,2,10,10,10,1
+                Style: Sign,Arial,48,&H00FFFFFF,&H000000FF,&H00000000,&H00000000,0,0,0,0,100,100,0,0.0,1,2,2,8,10,10,10,1
+                """, styles.toString());
+        Assertions.assertEquals(Style.builder().build().toString(), Styles.of(Style.builder().build()).toString());
+    }
+
+    @Test
+    void testLookup() {
+        var styles = Styles.of(Style.builder().name("Sign").build());
+        var sign = styles.handle("Sign");
+        Assertions.assertEquals("Sign", styles.get(sign).getName());
+        Assertions.assertSame(sign, styles.handle("Sign"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> styles.handle("Karaoke"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Styles.of(Style.builder().build(), Style.builder().build()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Styles.of(Style.builder().build(), Style.builder().name("Sign").encoding(null).build()));
+
+        var event = new Event(
+                Dialogue.builder().style(sign.name()).build(),
+                Dialogue.builder().build(),
+                Dialogue.builder().style("Karaoke").build(),
+                Dialogue.builder().style("Karaoke").build(),
+                Dialogue.builder().style("Song").build()
+        );
+        Assertions.assertEquals(Map.of("Karaoke", 2, "Song", 4), styles.unknownStyles(event));
+        Assertions.assertEquals(Map.of("Karaoke", 2, "Song", 4), styles.unknownStyles(DialogueTable.of(event)));
+    }
+
+    @Test
+    void testHandlesInTable() {
+        var styles = Styles.of(Style.builder().build(), Style.builder().name("Sign").build());
+        var table = new DialogueTable(styles);
+        table.append(0, 0, 100, styles.handle("Sign"), "", 0, 0, 0, Dialogue.Effect.UNDEFINED, "sign");
+        table.append(0, 0, 100, "Default", "", 0, 0, 0, Dialogue.Effect.UNDEFINED, "line");
+        Assertions.assertEquals("Sign", table.style(0));
+        Assertions.assertEquals("Dialogue: 0,0:00:00.00,0:00:01.00,Sign,,0,0,0,,sign", table.get(0).toString());
+        Assertions.assertEquals("Default", table.style(1));
+
+        var other = Styles.of(Style.builder().name("Karaoke").build(), Style.builder().name("Sign").build());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> table.append(0, 0, 1, other.handle("Karaoke"), "", 0, 0, 0, Dialogue.Effect.UNDEFINED, ""));
+        // same index and name, but issued by another registry
+        Assertions.assertThrows(IllegalArgumentException.class, () -> table.append(0, 0, 1, Styles.of(styles.styles()).handle("Sign"), "", 0, 0, 0, Dialogue.Effect.UNDEFINED, ""));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> styles.get(other.handle("Sign")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new DialogueTable().append(0, 0, 1, styles.handle("Sign"), "", 0, 0, 0, Dialogue.Effect.UNDEFINED, ""));
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.since1986.assa;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+class TestSubtitleWriter {
+
+    private static final Event EVENT = new Event(
+            Dialogue.builder().start(Timestamps.ofCentis(150)).end(Timestamps.ofCentis(325)).tex("{\\pos(10,10)\\i1}Hello{\\i0}\\Nworld & <you>").build(),
+            Dialogue.builder().start(Timestamps.ofCentis(400)).end(Timestamps.ofCentis(500)).tex("{\\p1}m 0 0 l 10 10{\\p0}").build(),
+            Dialogue.builder().end(Timestamps.ofCentis(500)).tex("no start").build(),
+            Dialogue.builder().start(Timestamps.ofCentis(360_000)).end(Timestamps.ofCentis(360_050)).tex("{\\b1}bold {\\i1}both{\\b0} italic\\h!").build()
+    );
+
+    private static String write(SubtitleWriter.Format format) throws IOException {
+        var builder = new StringBuilder();
+        new SubtitleWriter(builder, format).write(EVENT);
+        return builder.toString();
+    }
+
+    @Test
+    void testSrt() throws IOException {
+        Assertions.assertEquals("""
+                1
+                00:00:01,500 --> 00:00:03,250
+                <i>Hello</i>
+                world & <you>
+
+                2
+                01:00:00,000 --> 01:00:00,500
+                <b>bold <i>both</i></b><i> italic !</i>
+
+                """, write(SubtitleWriter.Format.SRT));
+    }
+
+    @Test
+    void testWebVtt() throws IOException {
+        Assertions.assertEquals("""
+                WEBVTT
+
+                00:00:01.500 --> 00:00:03.250
+                <i>Hello</i>
+                world &amp; &lt;you&gt;
+
+                01:00:00.000 --> 01:00:00.500
+                <b>bold <i>both</i></b><i> italic !</i>
+
+                """, write(SubtitleWriter.Format.WEBVTT));
+        var empty = new StringBuilder();
+        new SubtitleWriter(empty, SubtitleWriter.Format.WEBVTT).write(new Event());
+        Assertions.assertEquals("WEBVTT\n\n", empty.toString());
+    }
+
+    @Test
+    void testWriteAll() throws IOException {
+        var advancedSubStationAlpha = new AdvancedSubStationAlpha(ScriptInfo.builder().build(), Style.builder().build(), EVENT);
+        var ass = new StringBuilder();
+        var srt = new StringBuilder();
+        var vtt = new StringBuilder();
+        SubtitleWriter.writeAll(
+                advancedSubStationAlpha,
+                new AssWriter(ass),
+                new SubtitleWriter(srt, SubtitleWriter.Format.SRT),
+                new SubtitleWriter(vtt, SubtitleWriter.Format.WEBVTT)
+        );
+        Assertions.assertEquals(advancedSubStationAlpha.toString(), ass.toString());
+        Assertions.assertEquals(write(SubtitleWriter.Format.SRT), srt.toString());
+        Assertions.assertEquals(write(SubtitleWriter.Format.WEBVTT), vtt.toString());
+    }
+
+    @Test
+    void testNamedReset() throws IOException {
+        var builder = new StringBuilder();
+        var writer = new SubtitleWriter(builder, SubtitleWriter.Format.WEBVTT);
+        writer.writeCue(Dialogue.builder().start(Timestamps.ofCentis(0)).end(Timestamps.ofCentis(100)).tex("{\\i1}x{\\rDefault}y").build());
+        writer.writeCue(Dialogue.builder().start(Timestamps.ofCentis(0)).end(Timestamps.ofCentis(100)).tex("{\\b1\\i1}x{\\rAlt 2\\u1}y{\\rnd5}z").build());
+        Assertions.assertEquals("""
+                WEBVTT
+
+                00:00:00.000 --> 00:00:01.000
+                <i>x</i>y
+
+                00:00:00.000 --> 00:00:01.000
+                <b><i>x</i></b><u>yz</u>
+
+                """, builder.toString());
+    }
+}
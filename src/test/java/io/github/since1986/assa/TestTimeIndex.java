@@ -0,0 +1,40 @@
+package io.github.since1986.assa;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+class TestTimeIndex {
+
+    @Test
+    void testAgainstLinearScan() {
+        var random = new Random(42);
+        var dialogues = new Dialogue[2000];
+        for (int i = 0; i < dialogues.length; i++) {
+            int start = random.nextInt(100_000);
+            dialogues[i] = i % 97 == 0 ? Dialogue.builder().build() : Dialogue.builder()
+                    .start(Timestamps.ofCentis(start))
+                    .end(Timestamps.ofCentis(start + random.nextInt(2000)))
+                    .build();
+        }
+        var half = dialogues.length / 2;
+        var index = TimeIndex.of(new Event(Arrays.copyOf(dialogues, half)))
+                .append(DialogueTable.of(new Event(Arrays.copyOfRange(dialogues, half, dialogues.length))));
+        Assertions.assertEquals(dialogues.length, index.size());
+        for (int q = 0; q < 500; q++) {
+            int from = random.nextInt(102_000);
+            int to = from + random.nextInt(500) + 1;
+            var expected = IntStream.range(0, dialogues.length)
+                    .filter(i -> dialogues[i].getStart() != null
+                            && Timestamps.toCentis(dialogues[i].getStart()) < to
+                            && Timestamps.toCentis(dialogues[i].getEnd()) > from)
+                    .toArray();
+            var actual = index.between(from, to);
+            Arrays.sort(actual);
+            Assertions.assertArrayEquals(expected, actual);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.since1986.assa;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+class TestValidator {
+
+    private static Dialogue line(int startCentis, int endCentis) {
+        return Dialogue.builder().start(Timestamps.ofCentis(startCentis)).end(Timestamps.ofCentis(endCentis)).build();
+    }
+
+    @Test
+    void testProblems() {
+        var event = new Event(
+                line(0, 100),
+                line(200, 100),
+                Dialogue.builder().end(Timestamps.ofCentis(100)).build(),
+                line(200, 300).toBuilder().style("Sign").build(),
+                line(50, 60).toBuilder().name("a,b").tex("x\ny").build(),
+                null
+        );
+        var diagnostics = new Validator(Style.builder().build()).validate(event);
+        Assertions.assertEquals(List.of(
+                Validator.Problem.END_BEFORE_START,
+                Validator.Problem.MISSING_START,
+                Validator.Problem.UNKNOWN_STYLE,
+                Validator.Problem.ILLEGAL_NAME,
+                Validator.Problem.ILLEGAL_TEXT,
+                Validator.Problem.UNSORTED,
+                Validator.Problem.NULL_DIALOGUE
+        ), diagnostics.stream().map(Validator.Diagnostic::problem).toList());
+        Assertions.assertEquals(List.of(1, 2, 3, 4, 4, 4, 5), diagnostics.stream().map(Validator.Diagnostic::line).toList());
+        Assertions.assertTrue(new Validator(Style.builder().name("Sign").build()).validate(new Event(line(0, 1).toBuilder().style("Sign").build())).isEmpty());
+    }
+
+    @Test
+    void testParallelMatchesSequential() {
+        var dialogues = new Dialogue[10_000];
+        for (int i = 0; i < dialogues.length; i++) {
+            dialogues[i] = line(i * 10, i * 10 + (i % 97 == 1 ? -5 : 20));
+        }
+        // out of order exactly at a chunk boundary, and inside a chunk
+        dialogues[1000] = line(0, 10);
+        dialogues[1500] = line(5, 10);
+        var event = new Event(dialogues);
+        var validator = new Validator(Style.builder().build());
+        var sequential = validator.validate(event);
+        Assertions.assertEquals(sequential, validator.validate(event, ForkJoinPool.commonPool(), 1000));
+        Assertions.assertEquals(sequential, validator.validate(DialogueTable.of(event), ForkJoinPool.commonPool(), 1000));
+        Assertions.assertEquals(sequential, validator.validate(DialogueStream.of(() -> Arrays.stream(event.items())), ForkJoinPool.commonPool(), 1000));
+        Assertions.assertEquals(2, sequential.stream().filter(diagnostic -> diagnostic.problem() == Validator.Problem.UNSORTED).count());
+    }
+
+    @Test
+    void testDocumentStaysWritable() {
+        var items = ((Event) TestAssWriter.sample(100).event()).items();
+        items[3] = items[3].toBuilder().style("Sign").build();
+        var opened = new int[1];
+        var stream = DialogueStream.of(() -> {
+            opened[0]++;
+            return Arrays.stream(items);
+        });
+        var document = new AdvancedSubStationAlpha(ScriptInfo.builder().build(), Style.builder().build(), stream);
+        var expected = new AdvancedSubStationAlpha(ScriptInfo.builder().build(), Style.builder().build(), new Event(items)).toString();
+        var diagnostics = Validator.validate(document);
+        Assertions.assertEquals(List.of(new Validator.Diagnostic(3, Validator.Problem.UNKNOWN_STYLE, "style Sign is not defined")), diagnostics);
+        Assertions.assertEquals(expected, document.toString());
+
+        // checked during the pass that writes it, opening the source once
+        opened[0] = 0;
+        var checked = new Validator(document.style()).checking(stream);
+        Assertions.assertThrows(IllegalStateException.class, checked::diagnostics);
+        Assertions.assertEquals(expected, new AdvancedSubStationAlpha(document.scriptInfo(), document.style(), checked).toString());
+        Assertions.assertEquals(diagnostics, checked.diagnostics());
+        Assertions.assertEquals(1, opened[0]);
+    }
+}